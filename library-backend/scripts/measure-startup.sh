@@ -0,0 +1,124 @@
+#!/usr/bin/env bash
+# Startup time and time to first request of the packaged application.
+#
+# Usage: scripts/measure-startup.sh [-n RUNS] [-p PORT] [-u PATH] [-m MAX_MS] [MODE...]
+#
+#   jar      fat jar, no AOT and no CDS (baseline)
+#   aot      target/fast-startup jar with Spring AOT
+#   aot-cds  target/fast-startup jar with Spring AOT and the CDS archive; fails if the
+#            archive does not match the JDK or the jars
+#
+#   -n  runs per mode, interleaved so that drift affects all modes alike (default 5)
+#   -p  HTTP port (default 18080)
+#   -u  request path timed as the first request (default /api/books/page?size=1)
+#   -m  exit with status 1 if the median time to first request of a mode exceeds MAX_MS
+#
+# Build first with ./mvnw -Pfast-startup package -DskipTests; all modes then use
+# the same build. The application reads the SPRING_DATASOURCE_* environment
+# variables as usual. Results are written to target/startup-result.csv.
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+runs=5
+port=18080
+path='/api/books/page?size=1'
+max_ms=
+while getopts 'n:p:u:m:' opt; do
+    case "$opt" in
+        n) runs=$OPTARG ;;
+        p) port=$OPTARG ;;
+        u) path=$OPTARG ;;
+        m) max_ms=$OPTARG ;;
+        *) sed -n '2,19p' "$0" >&2; exit 2 ;;
+    esac
+done
+shift $((OPTIND - 1))
+if (($# == 0)); then
+    set -- jar aot aot-cds
+fi
+modes=("$@")
+
+java="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+fat_jar=$(ls target/library-backend-*.jar 2>/dev/null | grep -v -- '-aot.jar$' | head -n 1 || true)
+fast_dir=target/fast-startup
+aot_jar=$(cd "$fast_dir" 2>/dev/null && ls library-backend-*-aot.jar 2>/dev/null | head -n 1 || true)
+url="http://localhost:$port$path"
+result=target/startup-result.csv
+log=target/startup-run.log
+
+command_for() {
+    case "$1" in
+        jar) [[ -n "$fat_jar" ]] && echo "$java -jar $PWD/$fat_jar" ;;
+        aot) [[ -n "$aot_jar" ]] && echo "$java -Dspring.aot.enabled=true -jar $aot_jar" ;;
+        aot-cds) [[ -n "$aot_jar" && -f "$fast_dir/library-backend.jsa" ]] \
+            && echo "$java -Xshare:on -XX:SharedArchiveFile=library-backend.jsa -Dspring.aot.enabled=true -jar $aot_jar" ;;
+        *) echo "Unknown mode: $1" >&2; exit 2 ;;
+    esac
+}
+
+for mode in "${modes[@]}"; do
+    if ! command_for "$mode" > /dev/null; then
+        echo "No build for mode $mode; run ./mvnw -Pfast-startup package -DskipTests first" >&2
+        exit 2
+    fi
+done
+if curl -s -o /dev/null "http://localhost:$port/"; then
+    echo "Port $port is already in use" >&2
+    exit 2
+fi
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# Sets started (Spring Boot's own figure, in seconds) and elapsed (ms) for one run
+measure() {
+    local command pid start
+    command=$(command_for "$1")
+    start=$(now_ms)
+    # Relative to the fast-startup directory, where the CDS archive was recorded
+    (cd "$fast_dir" && exec $command --server.port="$port") > "$log" 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null --max-time 5 "$url"; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "Mode $1 exited before answering; see $log" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+    elapsed=$(( $(now_ms) - start ))
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    # Spring Boot's own figure: "Started LibraryApplication in 3.1 seconds (process running for 3.6)"
+    started=$(sed -n 's/.*Started LibraryApplication in \([0-9.]*\) seconds.*/\1/p' "$log")
+    started=${started:-?}
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+echo "mode,run,started_s,first_request_ms" > "$result"
+for ((run = 1; run <= runs; run++)); do
+    for mode in "${modes[@]}"; do
+        measure "$mode"
+        echo "$mode,$run,$started,$elapsed" >> "$result"
+        printf '%-8s run %-3d started in %6s s, first request after %6d ms\n' "$mode" "$run" "$started" "$elapsed"
+    done
+done
+
+echo
+printf '%-8s %24s\n' mode 'median first request ms'
+failed=0
+for mode in "${modes[@]}"; do
+    value=$(awk -F, -v m="$mode" '$1 == m { print $4 }' "$result" | median)
+    printf '%-8s %24d\n' "$mode" "$value"
+    if [[ -n "$max_ms" && "$value" -gt "$max_ms" ]]; then
+        echo "$mode: median $value ms exceeds the limit of $max_ms ms" >&2
+        failed=1
+    fi
+done
+echo "Results written to $result"
+exit "$failed"
@@ -0,0 +1,78 @@
+package com.library.library_backend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.library.library_backend.dto.BookResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encode time and bytes on the wire of a book list per response encoding.
+ *
+ * <p>The {@code -gzip} variants add the response compression applied by the
+ * server for clients that accept it. Encoded sizes are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookEncodingBenchmark {
+
+    @Param({"100", "10000"})
+    private int size;
+
+    @Param({"json", "json-gzip", "cbor", "cbor-gzip", "smile", "smile-gzip"})
+    private String encoding;
+
+    private ObjectMapper mapper;
+    private boolean gzip;
+    private List<BookResponse> books;
+
+    @Setup
+    public void setUp() throws IOException {
+        String format = encoding.replace("-gzip", "");
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if (format.equals("cbor")) {
+            builder.factory(new CBORFactory());
+        } else if (format.equals("smile")) {
+            builder.factory(new SmileFactory());
+        }
+        mapper = builder.build();
+        gzip = encoding.endsWith("-gzip");
+        books = BookFixtures.responses(size);
+
+        System.out.printf("%n%s, %d books: %d bytes%n", encoding, size, encode().length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(size * 128);
+        if (gzip) {
+            try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+                mapper.writeValue(out, books);
+            }
+        } else {
+            mapper.writeValue(bytes, books);
+        }
+        return bytes.toByteArray();
+    }
+}
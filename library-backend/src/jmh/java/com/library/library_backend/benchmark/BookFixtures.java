@@ -0,0 +1,47 @@
+package com.library.library_backend.benchmark;
+
+import com.library.library_backend.dto.BookRequest;
+import com.library.library_backend.dto.BookResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Deterministic test data shared by the benchmarks.
+ */
+final class BookFixtures {
+
+    private BookFixtures() {
+    }
+
+    static BookRequest request(int i) {
+        BookRequest request = new BookRequest();
+        request.setTitle("The Collected Works, Volume " + i);
+        request.setAuthor("Author " + (i % 500));
+        request.setIsbn(String.format("978%010d", i));
+        request.setPublishedYear(1900 + (i % 125));
+        request.setAvailable(i % 3 != 0);
+        return request;
+    }
+
+    static BookResponse response(int i) {
+        BookRequest request = request(i);
+        BookResponse response = new BookResponse();
+        response.setBookId(new UUID(i, i).toString());
+        response.setTitle(request.getTitle());
+        response.setAuthor(request.getAuthor());
+        response.setIsbn(request.getIsbn());
+        response.setPublishedYear(request.getPublishedYear());
+        response.setAvailable(request.getAvailable());
+        return response;
+    }
+
+    static List<BookResponse> responses(int count) {
+        List<BookResponse> responses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            responses.add(response(i));
+        }
+        return responses;
+    }
+}
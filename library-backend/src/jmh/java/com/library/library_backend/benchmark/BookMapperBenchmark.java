@@ -0,0 +1,58 @@
+package com.library.library_backend.benchmark;
+
+import com.library.library_backend.dto.BookRequest;
+import com.library.library_backend.dto.BookResponse;
+import com.library.library_backend.entity.BookEntity;
+import com.library.library_backend.mapper.BookMapper;
+import com.library.library_backend.mapper.BookMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the MapStruct conversions used on every request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookMapperBenchmark {
+
+    private final BookMapper mapper = new BookMapperImpl();
+
+    private BookRequest request;
+    private BookEntity entity;
+
+    @Setup
+    public void setUp() {
+        request = BookFixtures.request(42);
+        entity = mapper.toEntity(request);
+    }
+
+    @Benchmark
+    public BookResponse toResponse() {
+        return mapper.toResponse(entity);
+    }
+
+    @Benchmark
+    public BookEntity toEntity() {
+        return mapper.toEntity(request);
+    }
+
+    @Benchmark
+    public BookEntity updateEntityFromRequest() {
+        mapper.updateEntityFromRequest(request, entity);
+        return entity;
+    }
+}
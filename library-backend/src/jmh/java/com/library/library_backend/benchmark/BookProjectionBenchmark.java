@@ -0,0 +1,104 @@
+package com.library.library_backend.benchmark;
+
+import com.library.library_backend.LibraryApplication;
+import com.library.library_backend.dto.BookResponse;
+import com.library.library_backend.entity.BookEntity;
+import com.library.library_backend.mapper.BookMapper;
+import com.library.library_backend.repository.BookRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Large-page reads: managed entities plus MapStruct versus DTO projection.
+ *
+ * Run with {@code -prof gc} to compare allocation per page, e.g.
+ * {@code -Djmh.args="BookProjection -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookProjectionBenchmark {
+
+    private static final int CATALOG_SIZE = 20_000;
+
+    @Param({"100", "1000"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private BookRepository repository;
+    private BookMapper mapper;
+    private TransactionTemplate readWriteTransaction;
+    private TransactionTemplate readOnlyTransaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(LibraryApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:projection;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "spring.flyway.enabled=false",
+                        "logging.level.root=WARN"
+                )
+                .run();
+
+        repository = context.getBean(BookRepository.class);
+        mapper = context.getBean(BookMapper.class);
+        List<BookEntity> books = new ArrayList<>(CATALOG_SIZE);
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            books.add(mapper.toEntity(BookFixtures.request(i)));
+        }
+        repository.saveAll(books);
+
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /** Previous read path: managed entities with dirty-check snapshots, then MapStruct */
+    @Benchmark
+    public Page<BookResponse> entitiesThenMapper() {
+        return readWriteTransaction.execute(status ->
+                repository.findAll(PageRequest.of(1, pageSize)).map(mapper::toResponse));
+    }
+
+    /** Current read path: read-only transaction selecting straight into the DTO */
+    @Benchmark
+    public Page<BookResponse> projection() {
+        return readOnlyTransaction.execute(status ->
+                repository.findAllResponses(PageRequest.of(1, pageSize)));
+    }
+}
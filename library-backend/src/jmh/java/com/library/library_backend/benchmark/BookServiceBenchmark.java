@@ -0,0 +1,128 @@
+package com.library.library_backend.benchmark;
+
+import com.library.library_backend.LibraryApplication;
+import com.library.library_backend.dto.BookCursorPage;
+import com.library.library_backend.dto.BookResponse;
+import com.library.library_backend.dto.Versioned;
+import com.library.library_backend.entity.BookEntity;
+import com.library.library_backend.mapper.BookMapper;
+import com.library.library_backend.repository.BookRepository;
+import com.library.library_backend.service.BookService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BookService read paths against an embedded H2 database (PostgreSQL mode).
+ *
+ * Absolute numbers are not representative of PostgreSQL, but the relative cost
+ * of the read paths and their regressions between builds are.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookServiceBenchmark {
+
+    @Param({"10000"})
+    private int catalogSize;
+
+    private ConfigurableApplicationContext context;
+    private BookService service;
+    private String bookId;
+    private int lastPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(LibraryApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "spring.flyway.enabled=false",
+                        "logging.level.root=WARN"
+                )
+                .run();
+
+        BookRepository repository = context.getBean(BookRepository.class);
+        BookMapper mapper = context.getBean(BookMapper.class);
+        List<BookEntity> books = new ArrayList<>(catalogSize);
+        for (int i = 0; i < catalogSize; i++) {
+            books.add(mapper.toEntity(BookFixtures.request(i)));
+        }
+        repository.saveAll(books);
+
+        // No Flyway on H2: seed the figures the V9 triggers keep on PostgreSQL
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.execute("CREATE TABLE book_stats (dimension VARCHAR(16) NOT NULL, name VARCHAR(255) NOT NULL, "
+                + "book_count BIGINT NOT NULL, PRIMARY KEY (dimension, name))");
+        jdbc.update("INSERT INTO book_stats (dimension, name, book_count) VALUES ('total', '', ?)", catalogSize);
+
+        service = context.getBean(BookService.class);
+        bookId = books.get(catalogSize / 2).getBookId().toString();
+        lastPage = catalogSize / 20 - 1;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /** Served from the books cache after the first invocation */
+    @Benchmark
+    public Versioned<BookResponse> getBook() {
+        return service.getBook(bookId);
+    }
+
+    @Benchmark
+    public Versioned<Page<BookResponse>> getBooksPageFirst() {
+        return service.getBooksPage(PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public Versioned<Page<BookResponse>> getBooksPageLast() {
+        return service.getBooksPage(PageRequest.of(lastPage, 20));
+    }
+
+    @Benchmark
+    public BookCursorPage getBooksAfterFirst() {
+        return service.getBooksAfter(null, 20, false);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long streamAllBooks(Blackhole blackhole) {
+        return service.streamAllBooks(blackhole::consume);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<BookResponse> getAllBooks() {
+        return service.getAllBooks();
+    }
+}
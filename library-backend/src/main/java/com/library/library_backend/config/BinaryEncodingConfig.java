@@ -0,0 +1,40 @@
+package com.library.library_backend.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Compact binary encodings of API responses.
+ *
+ * <p>Clients that send {@code Accept: application/cbor} or
+ * {@code Accept: application/x-jackson-smile} to the catalog and page
+ * endpoints get the same documents as with JSON, encoded in CBOR or Smile.
+ * JSON stays the default. Other endpoints only produce JSON (see
+ * {@code BookController}), so they need no per-encoding ETags.
+ *
+ * <p>The converters are built from Spring Boot's {@link Jackson2ObjectMapperBuilder},
+ * so {@code spring.jackson.*} settings apply to every encoding alike.
+ */
+@Configuration
+public class BinaryEncodingConfig {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
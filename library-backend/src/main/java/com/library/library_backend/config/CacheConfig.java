@@ -0,0 +1,47 @@
+package com.library.library_backend.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * In-process caching configuration.
+ *
+ * <p>Caches are bounded by size and expire after a fixed time since the entry
+ * was written. The cache manager is transaction-aware: puts and evictions issued
+ * inside a transaction are only applied after that transaction commits, so a
+ * rolled-back write never leaks into the cache.
+ *
+ * <p>Hit, miss and eviction counters are recorded and published through the
+ * actuator {@code cache.*} metrics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /** Cache of {@code Versioned<BookResponse>} keyed by public bookId */
+    public static final String BOOKS_CACHE = "books";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${library.cache.books.max-size:10000}") long maxSize,
+            @Value("${library.cache.books.ttl:10m}") Duration ttl
+    ) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats());
+        cacheManager.setAllowNullValues(false);
+        cacheManager.setCacheNames(List.of(BOOKS_CACHE));
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
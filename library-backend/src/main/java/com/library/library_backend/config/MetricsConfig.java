@@ -0,0 +1,50 @@
+package com.library.library_backend.config;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Metrics configuration.
+ *
+ * <p>Enables latency histograms (p50/p99/p999 plus Prometheus buckets) for the
+ * hot paths, so a slowdown can be attributed to the request as a whole
+ * ({@code http.server.requests}), the database ({@code spring.data.repository.invocations},
+ * {@code hikaricp.connections.acquire}) or the amount of data returned
+ * ({@code library.books.result.size}).
+ */
+@Configuration
+public class MetricsConfig {
+
+    private static final List<String> LATENCY_METERS = List.of(
+            "http.server.requests",
+            "spring.data.repository.invocations",
+            "hikaricp.connections.acquire"
+    );
+
+    private static final double[] PERCENTILES = {0.5, 0.99, 0.999};
+
+    @Bean
+    public MeterFilter latencyHistogramMeterFilter() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (LATENCY_METERS.stream().noneMatch(id.getName()::startsWith)) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .percentiles(PERCENTILES)
+                        .percentilesHistogram(true)
+                        .minimumExpectedValue((double) Duration.ofMillis(1).toNanos())
+                        .maximumExpectedValue((double) Duration.ofSeconds(30).toNanos())
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+}
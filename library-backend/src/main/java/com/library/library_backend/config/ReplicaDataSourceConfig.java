@@ -0,0 +1,121 @@
+package com.library.library_backend.config;
+
+import com.library.library_backend.datasource.ReplicaDataSource;
+import com.library.library_backend.datasource.StaleReadFallback;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read/write splitting between the primary database and its replicas.
+ *
+ * <p>Only active when {@code library.datasource.replica-urls} is set. The
+ * application data source is then a {@link LazyConnectionDataSourceProxy}
+ * over the primary: the physical connection is only fetched on first use,
+ * and connections of read-only transactions
+ * ({@code @Transactional(readOnly = true)}) come from the {@link ReplicaDataSource}.
+ * Everything else, including Flyway, goes to the primary.
+ *
+ * <p>Replicas reuse the primary's credentials and Hikari pool settings.
+ */
+@Configuration
+@ConditionalOnProperty(name = "library.datasource.replica-urls")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaDataSource replicaDataSource(
+            HikariDataSource primaryDataSource,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${library.datasource.replica-urls}") List<String> replicaUrls,
+            @Value("${library.datasource.max-replica-lag:5s}") Duration maxLag,
+            @Value("${library.datasource.stale-read-fallback:PRIMARY}") StaleReadFallback fallback
+    ) {
+        List<String> names = new ArrayList<>();
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setJdbcUrl(replicaUrls.get(i).trim());
+            config.setPoolName("replica-" + i);
+            config.setReadOnly(true);
+            // Pool metrics are registered per replica; do not share the primary's tracker
+            if (config.getMetricsTrackerFactory() != null) {
+                config.setMetricsTrackerFactory(null);
+            }
+            meterRegistry.ifAvailable(registry ->
+                    config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+
+            names.add(config.getPoolName());
+            replicas.add(new HikariDataSource(config));
+        }
+        return new ReplicaDataSource(names, replicas, primaryDataSource, maxLag, fallback);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaHealthCheck replicasHealthIndicator(ReplicaDataSource replicaDataSource) {
+        return new ReplicaHealthCheck(replicaDataSource);
+    }
+
+    /**
+     * Probes the replicas periodically and reports them on {@code /actuator/health}.
+     */
+    public static class ReplicaHealthCheck implements HealthIndicator {
+
+        private final ReplicaDataSource replicaDataSource;
+
+        ReplicaHealthCheck(ReplicaDataSource replicaDataSource) {
+            this.replicaDataSource = replicaDataSource;
+        }
+
+        @Scheduled(fixedDelayString = "${library.datasource.replica-health-check-interval:PT5S}")
+        public void checkReplicas() {
+            replicaDataSource.checkHealth();
+        }
+
+        @Override
+        public Health health() {
+            List<ReplicaDataSource.ReplicaStatus> statuses = replicaDataSource.getStatus();
+            Health.Builder builder = statuses.stream().anyMatch(ReplicaDataSource.ReplicaStatus::usable)
+                    ? Health.up()
+                    : Health.status("DEGRADED");
+            statuses.forEach(status -> builder.withDetail(status.name(), status));
+            return builder.build();
+        }
+    }
+}
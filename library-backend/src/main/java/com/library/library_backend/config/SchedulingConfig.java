@@ -0,0 +1,17 @@
+package com.library.library_backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs (replica health checks, change
+ * feed and idempotency key retention, refresh of the catalog snapshot, bookId
+ * filter and autocomplete index).
+ *
+ * <p>Intervals of scheduled jobs are configured as ISO-8601 durations
+ * (e.g. {@code PT5S}) or milliseconds.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,37 @@
+package com.library.library_backend.config;
+
+import com.library.library_backend.web.AdmissionControlInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Spring MVC configuration.
+ *
+ * <p>Registers admission control for the book API. The change feed is left
+ * out: it is long-lived and bounded by its own subscriber limit.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final AdmissionControlInterceptor admissionControl;
+    private final boolean rateLimitEnabled;
+
+    public WebConfig(
+            AdmissionControlInterceptor admissionControl,
+            @Value("${library.rate-limit.enabled:true}") boolean rateLimitEnabled
+    ) {
+        this.admissionControl = admissionControl;
+        this.rateLimitEnabled = rateLimitEnabled;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (rateLimitEnabled) {
+            registry.addInterceptor(admissionControl)
+                    .addPathPatterns("/api/**")
+                    .excludePathPatterns("/api/books/events");
+        }
+    }
+}
@@ -1,111 +1,445 @@
 package com.library.library_backend.controller;
 
+import com.library.library_backend.config.BinaryEncodingConfig;
+import com.library.library_backend.dto.BookBatchRequest;
+import com.library.library_backend.dto.BookBatchResponse;
+import com.library.library_backend.dto.BookCreateResult;
+import com.library.library_backend.dto.BookCursorPage;
+import com.library.library_backend.dto.BookFilter;
+import com.library.library_backend.dto.BookImportResult;
 import com.library.library_backend.dto.BookRequest;
 import com.library.library_backend.dto.BookResponse;
+import com.library.library_backend.dto.BookStats;
+import com.library.library_backend.dto.BookSuggestion;
+import com.library.library_backend.dto.ResourceVersion;
+import com.library.library_backend.dto.Versioned;
+import com.library.library_backend.exception.BadRequestException;
+import com.library.library_backend.service.BookChangeFeed;
+import com.library.library_backend.service.BookExportService;
+import com.library.library_backend.service.BookImportService;
+import com.library.library_backend.service.BookMetrics;
 import com.library.library_backend.service.BookService;
+import com.library.library_backend.service.BookSuggestService;
+import com.library.library_backend.service.CatalogSnapshot;
+import com.library.library_backend.web.ExpensiveEndpoint;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * REST controller for managing books in the library.
  *
  * All endpoints communicate via DTOs (BookRequest / BookResponse) and never expose database entities.
+ *
+ * Responses are JSON. Only the catalog and page endpoints declare the binary
+ * encodings too, and tag and vary their responses by representation; Spring
+ * registers the CBOR and Smile converters for every endpoint otherwise.
  */
 @RestController
-@RequestMapping("/api/books")
+@RequestMapping(value = "/api/books", produces = MediaType.APPLICATION_JSON_VALUE)
 public class BookController {
 
     private static final Logger logger = LoggerFactory.getLogger(BookController.class);
+
+    /** Representations of the full catalog, in order of preference for wildcards */
+    private static final List<MediaType> EXPORT_MEDIA_TYPES = List.of(
+            MediaType.APPLICATION_JSON,
+            MediaType.APPLICATION_NDJSON,
+            MediaType.APPLICATION_CBOR,
+            BinaryEncodingConfig.APPLICATION_SMILE
+    );
+
+    /** Representations of a page, produced by the registered message converters */
+    private static final List<MediaType> PAGE_MEDIA_TYPES = List.of(
+            MediaType.APPLICATION_JSON,
+            MediaType.APPLICATION_CBOR,
+            BinaryEncodingConfig.APPLICATION_SMILE
+    );
     private final BookService service;
+    private final BookExportService exportService;
+    private final BookImportService importService;
+    private final BookChangeFeed changeFeed;
+    private final BookSuggestService suggestService;
+    private final BookMetrics metrics;
 
-    public BookController(BookService service) {
+    public BookController(
+            BookService service,
+            BookExportService exportService,
+            BookImportService importService,
+            BookChangeFeed changeFeed,
+            BookSuggestService suggestService,
+            BookMetrics metrics
+    ) {
         this.service = service;
+        this.exportService = exportService;
+        this.importService = importService;
+        this.changeFeed = changeFeed;
+        this.suggestService = suggestService;
+        this.metrics = metrics;
     }
 
     /* ===========================
        GET ALL / PAGINATED / SEARCH
        =========================== */
 
-    @GetMapping
-    public List<BookResponse> getAllBooks() {
-        logger.info("[REQUEST] GET /api/books");
-        List<BookResponse> books = service.getAllBooks();
-        logger.info("[RESPONSE] 200 OK | Books count: {}", books.size());
-        return books;
+    /**
+     * Streams the whole catalog.
+     *
+     * Responds with a JSON array by default, with newline-delimited JSON when
+     * the client accepts {@code application/x-ndjson}, or with a CBOR / Smile
+     * array for {@code application/cbor} / {@code application/x-jackson-smile}.
+     * Books are written as they are read from the database, so the catalog is
+     * never materialized; with {@code library.snapshot.enabled}, JSON is copied
+     * from the pre-serialized {@link CatalogSnapshot} when it holds exactly the
+     * current catalog version, and read from the database otherwise. Both write
+     * books in bookId order.
+     *
+     * Conditional requests are answered with 304 from the catalog version alone.
+     * A body read from the database is tagged with the version read along with
+     * the books, which may differ from the one checked when they come from
+     * another replica; the tag is set before the first byte is written.
+     */
+    @ExpensiveEndpoint
+    @GetMapping(produces = {
+            MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_NDJSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE,
+            BinaryEncodingConfig.APPLICATION_SMILE_VALUE
+    })
+    public ResponseEntity<StreamingResponseBody> getAllBooks(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            WebRequest webRequest,
+            HttpServletResponse response
+    ) throws HttpMediaTypeNotAcceptableException {
+        logger.debug("[REQUEST] GET /api/books");
+        MediaType mediaType = negotiate(accept, EXPORT_MEDIA_TYPES);
+
+        ResourceVersion catalogVersion = service.getCatalogVersion();
+        Optional<CatalogSnapshot.View> snapshot = mediaType.equals(MediaType.APPLICATION_JSON)
+                ? exportService.findJsonSnapshot(catalogVersion)
+                : Optional.empty();
+        // Tag a snapshot body with the position the snapshot itself applied
+        ResourceVersion version = snapshot
+                .map(view -> new ResourceVersion(view.position(), catalogVersion.getModifiedAt()))
+                .orElse(catalogVersion);
+        String etag = version.toWeakETag(mediaType.getSubtype());
+        if (webRequest.checkNotModified(etag, version.getModifiedAt().toEpochMilli())) {
+            logger.debug("[RESPONSE] 304 Not Modified");
+            return null;
+        }
+
+        Consumer<ResourceVersion> tag = readAt -> {
+            response.setHeader(HttpHeaders.ETAG, readAt.toWeakETag(mediaType.getSubtype()));
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, readAt.getModifiedAt().toEpochMilli());
+        };
+        StreamingResponseBody body = out -> {
+            long count;
+            if (snapshot.isPresent()) {
+                count = snapshot.get().writeJsonArray(out);
+            } else if (mediaType.equals(MediaType.APPLICATION_NDJSON)) {
+                count = exportService.writeNdjson(out, tag);
+            } else if (mediaType.equals(MediaType.APPLICATION_CBOR)) {
+                count = exportService.writeCborArray(out, tag);
+            } else if (mediaType.equals(BinaryEncodingConfig.APPLICATION_SMILE)) {
+                count = exportService.writeSmileArray(out, tag);
+            } else {
+                count = exportService.writeJsonArray(out, tag);
+            }
+            metrics.recordResultSize("getAllBooks", count);
+            logger.debug("[RESPONSE] 200 OK | Books count: {}", count);
+        };
+
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .eTag(etag)
+                .lastModified(version.getModifiedAt())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(body);
     }
 
-    @GetMapping("/page")
-    public Page<BookResponse> getBooksPage(
+    @ExpensiveEndpoint
+    @GetMapping(value = "/page", produces = {
+            MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE,
+            BinaryEncodingConfig.APPLICATION_SMILE_VALUE
+    })
+    public ResponseEntity<Page<BookResponse>> getBooksPage(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size
+            @RequestParam(defaultValue = "10") int size,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            WebRequest webRequest
+    ) throws HttpMediaTypeNotAcceptableException {
+        logger.debug("[REQUEST] GET /api/books/page?page={}&size={}", page, size);
+
+        MediaType mediaType = negotiate(accept, PAGE_MEDIA_TYPES);
+        // Checked against the version read with the page, not one read on its own
+        Versioned<Page<BookResponse>> versioned = service.getBooksPage(PageRequest.of(page, size));
+        ResourceVersion version = versioned.getVersion();
+        String etag = version.toWeakETag(mediaType.getSubtype());
+        if (webRequest.checkNotModified(etag, version.getModifiedAt().toEpochMilli())) {
+            logger.debug("[RESPONSE] 304 Not Modified");
+            return null;
+        }
+
+        Page<BookResponse> bookPage = versioned.getValue();
+        metrics.recordResultSize("getBooksPage", bookPage.getNumberOfElements());
+        logger.debug("[RESPONSE] 200 OK | Page size: {}", bookPage.getNumberOfElements());
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .eTag(etag)
+                .lastModified(version.getModifiedAt())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(bookPage);
+    }
+
+    @GetMapping("/cursor")
+    public BookCursorPage getBooksAfter(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal
     ) {
-        logger.info("[REQUEST] GET /api/books/page?page={}&size={}", page, size);
-        Page<BookResponse> bookPage = service.getBooksPage(PageRequest.of(page, size));
-        logger.info("[RESPONSE] 200 OK | Page size: {}", bookPage.getNumberOfElements());
+        logger.debug("[REQUEST] GET /api/books/cursor?size={}&includeTotal={}", size, includeTotal);
+        BookCursorPage bookPage = service.getBooksAfter(cursor, size, includeTotal);
+        metrics.recordResultSize("getBooksAfter", bookPage.getContent().size());
+        logger.debug("[RESPONSE] 200 OK | Page size: {}", bookPage.getContent().size());
         return bookPage;
     }
 
+    /**
+     * Catalog statistics, read from aggregates maintained on every write.
+     */
+    @GetMapping("/stats")
+    public BookStats getStats(@RequestParam(defaultValue = "10") int top) {
+        logger.debug("[REQUEST] GET /api/books/stats?top={}", top);
+        return service.getStats(top);
+    }
+
+    /**
+     * Autocomplete: books with a title or author word starting with the query,
+     * served from memory. Responds with 404 when {@code library.suggest.enabled}
+     * is off.
+     */
+    @GetMapping("/suggest")
+    public List<BookSuggestion> suggestBooks(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        List<BookSuggestion> suggestions = suggestService.suggest(q, limit);
+        metrics.recordResultSize("suggestBooks", suggestions.size());
+        return suggestions;
+    }
+
+    /**
+     * Filter by author, published year range and availability, with sorting.
+     */
+    @ExpensiveEndpoint
+    @GetMapping("/filter")
+    public Page<BookResponse> filterBooks(
+            BookFilter filter,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "createdAt") String sort,
+            @RequestParam(defaultValue = "asc") String direction
+    ) {
+        logger.debug("[REQUEST] GET /api/books/filter | page: {} | size: {} | sort: {} {}", page, size, sort, direction);
+        Page<BookResponse> result = service.filterBooks(filter, page, size, sort, direction);
+        metrics.recordResultSize("filterBooks", result.getNumberOfElements());
+        logger.debug("[RESPONSE] 200 OK | Page size: {}", result.getNumberOfElements());
+        return result;
+    }
+
+    @ExpensiveEndpoint
     @GetMapping("/search")
-    public List<BookResponse> searchBooks(@RequestParam String q) {
-        logger.info("[REQUEST] GET /api/books/search?q={}", q);
-        List<BookResponse> result = service.searchBooks(q);
-        logger.info("[RESPONSE] 200 OK | Results count: {}", result.size());
+    public List<BookResponse> searchBooks(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        logger.debug("[REQUEST] GET /api/books/search | q length: {} | page: {} | size: {}", q.length(), page, size);
+        List<BookResponse> result = service.searchBooks(q, page, size);
+        metrics.recordResultSize("searchBooks", result.size());
+        logger.debug("[RESPONSE] 200 OK | Results count: {}", result.size());
         return result;
     }
 
+    /* ===========================
+       CHANGE FEED
+       =========================== */
+
+    /**
+     * Server-Sent Events stream of book changes.
+     *
+     * Resumes after the sequence number in {@code Last-Event-ID} (sent by
+     * EventSource clients on reconnect) or the {@code after} parameter.
+     * Responds with 503 when too many streams are open.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEvents(
+            @RequestParam(required = false) Long after,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId
+    ) {
+        Long position = lastEventId != null ? lastEventId : after;
+        logger.debug("[REQUEST] GET /api/books/events | after: {}", position);
+        return changeFeed.subscribe(position)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> {
+                    logger.debug("[RESPONSE] 503 Service Unavailable | Subscriber limit reached");
+                    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                            .header(HttpHeaders.RETRY_AFTER, "5")
+                            .build();
+                });
+    }
+
     /* ===========================
        GET BY ID
        =========================== */
 
+    /**
+     * Get a single book.
+     *
+     * Conditional requests (If-None-Match / If-Modified-Since) are answered
+     * with 304 from the version cached together with the book.
+     */
     @GetMapping("/{bookId}")
-    public BookResponse getBook(@PathVariable String bookId) {
-        logger.info("[REQUEST] GET /api/books/{}", bookId);
-        BookResponse book = service.getBook(bookId);
-        logger.info("[RESPONSE] 200 OK | Book: {}", book);
-        return book;
+    public ResponseEntity<BookResponse> getBook(@PathVariable String bookId, WebRequest webRequest) {
+        logger.debug("[REQUEST] GET /api/books/{}", bookId);
+
+        Versioned<BookResponse> versioned = service.getBook(bookId);
+        ResourceVersion version = versioned.getVersion();
+        if (webRequest.checkNotModified(version.toETag(), version.getModifiedAt().toEpochMilli())) {
+            logger.debug("[RESPONSE] 304 Not Modified");
+            return null;
+        }
+
+        BookResponse book = versioned.getValue();
+        logger.debug("[RESPONSE] 200 OK | bookId: {}", book.getBookId());
+        return ResponseEntity.ok()
+                .eTag(version.toETag())
+                .lastModified(version.getModifiedAt())
+                .body(book);
+    }
+
+    /**
+     * Get several books in one round trip.
+     *
+     * Books are returned in request order; unknown ids are listed separately.
+     * POST keeps long id lists out of the URL.
+     */
+    @PostMapping("/batch")
+    public BookBatchResponse getBooks(@RequestBody @Valid BookBatchRequest request) {
+        logger.debug("[REQUEST] POST /api/books/batch | ids: {}", request.getBookIds().size());
+        BookBatchResponse response = service.getBooks(request.getBookIds());
+        metrics.recordResultSize("getBooks", response.getContent().size());
+        logger.debug("[RESPONSE] 200 OK | Found: {} | Missing: {}",
+                response.getContent().size(), response.getMissing().size());
+        return response;
     }
 
     /* ===========================
        CREATE / UPDATE
        =========================== */
 
+    /**
+     * Create a book.
+     *
+     * Retries with the same Idempotency-Key header return the book and status
+     * of the first request, marked with {@code Idempotent-Replayed: true}.
+     * With ISBN upserts enabled, an existing book with the same ISBN is
+     * returned with 200 instead of 201.
+     */
     @PostMapping
 public ResponseEntity<BookResponse> addBook(
-        @RequestBody @Valid BookRequest request
+        @RequestBody @Valid BookRequest request,
+        @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
 ) {
-    BookResponse createdBook = service.addBook(request);
+    BookCreateResult result = service.addBook(request, idempotencyKey);
+    BookResponse book = result.getBook();
 
     URI location = URI.create(
-            "/api/books/" + createdBook.getBookId()
+            "/api/books/" + book.getBookId()
     );
 
-    return ResponseEntity
-            .created(location)
-            .body(createdBook);
+    ResponseEntity.BodyBuilder response = switch (result.getOutcome()) {
+        case CREATED -> ResponseEntity
+                .created(location);
+        case EXISTING -> ResponseEntity
+                .ok()
+                .location(location);
+    };
+    if (result.isReplayed()) {
+        response.header("Idempotent-Replayed", "true");
+    }
+    return response.body(book);
 }
 
 
+    /**
+     * Bulk import from a JSON array or NDJSON body.
+     *
+     * The body is parsed and inserted in batches as it is read; the response
+     * lists rejected rows and the achieved throughput.
+     */
+    @ExpensiveEndpoint
+    @PostMapping(
+            value = "/import",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE}
+    )
+    public BookImportResult importBooks(InputStream body) throws IOException {
+        logger.debug("[REQUEST] POST /api/books/import");
+        BookImportResult result = importService.importBooks(body);
+        logger.debug("[RESPONSE] 200 OK | Imported: {} | Failed: {}", result.getImported(), result.getFailed());
+        return result;
+    }
+
     @PutMapping("/{bookId}")
     public BookResponse updateBook(@PathVariable String bookId, @RequestBody @Valid BookRequest request) {
-        logger.info("[REQUEST] PUT /api/books/{} | Body: {}", bookId, request);
+        logger.debug("[REQUEST] PUT /api/books/{}", bookId);
         BookResponse updatedBook = service.updateBook(bookId, request);
-        logger.info("[RESPONSE] 200 OK | Book: {}", updatedBook);
+        logger.debug("[RESPONSE] 200 OK | Book updated");
         return updatedBook;
     }
 
     @PutMapping("/{bookId}/toggle-availability")
     public BookResponse toggleAvailability(@PathVariable String bookId) {
-        logger.info("[REQUEST] PUT /api/books/{}/toggle-availability", bookId);
+        logger.debug("[REQUEST] PUT /api/books/{}/toggle-availability", bookId);
         BookResponse response = service.toggleAvailability(bookId);
-        logger.info("[RESPONSE] 200 OK | Book availability toggled: {}", response);
+        logger.debug("[RESPONSE] 200 OK | Book availability toggled: {}", response.getAvailable());
+        return response;
+    }
+
+    @PutMapping("/{bookId}/checkout")
+    public BookResponse checkOut(@PathVariable String bookId) {
+        logger.debug("[REQUEST] PUT /api/books/{}/checkout", bookId);
+        BookResponse response = service.checkOut(bookId);
+        logger.debug("[RESPONSE] 200 OK | Book checked out");
+        return response;
+    }
+
+    @PutMapping("/{bookId}/return")
+    public BookResponse returnBook(@PathVariable String bookId) {
+        logger.debug("[REQUEST] PUT /api/books/{}/return", bookId);
+        BookResponse response = service.returnBook(bookId);
+        logger.debug("[RESPONSE] 200 OK | Book returned");
         return response;
     }
 
@@ -115,9 +449,65 @@ public ResponseEntity<BookResponse> addBook(
 
     @DeleteMapping("/{bookId}")
     public ResponseEntity<Void> deleteBook(@PathVariable String bookId) {
-        logger.info("[REQUEST] DELETE /api/books/{}", bookId);
+        logger.debug("[REQUEST] DELETE /api/books/{}", bookId);
         service.deleteBook(bookId);
-        logger.info("[RESPONSE] 204 No Content | Book deleted");
+        logger.debug("[RESPONSE] 204 No Content | Book deleted");
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Pick the representation for the Accept header. Each producible type gets
+     * the quality of the most specific range that includes it, so
+     * {@code application/cbor;q=0} rules CBOR out even next to a wildcard. The highest
+     * quality wins; ties go to the range listed first, then to the order of
+     * {@code producible}. Without an Accept header, JSON is returned.
+     *
+     * @throws BadRequestException if the Accept header cannot be parsed
+     * @throws HttpMediaTypeNotAcceptableException if no producible type is acceptable
+     */
+    private static MediaType negotiate(String accept, List<MediaType> producible)
+            throws HttpMediaTypeNotAcceptableException {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            throw new BadRequestException("Malformed Accept header");
+        }
+
+        MediaType best = null;
+        double bestQuality = 0;
+        int bestRange = Integer.MAX_VALUE;
+        for (MediaType candidate : producible) {
+            int range = -1;
+            for (int i = 0; i < accepted.size(); i++) {
+                if (accepted.get(i).includes(candidate)
+                        && (range < 0 || specificity(accepted.get(i)) > specificity(accepted.get(range)))) {
+                    range = i;
+                }
+            }
+            if (range < 0) {
+                continue;
+            }
+            double quality = accepted.get(range).getQualityValue();
+            if (quality > bestQuality || (quality > 0 && quality == bestQuality && range < bestRange)) {
+                best = candidate;
+                bestQuality = quality;
+                bestRange = range;
+            }
+        }
+        if (best == null) {
+            throw new HttpMediaTypeNotAcceptableException(producible);
+        }
+        return best;
+    }
+
+    private static int specificity(MediaType range) {
+        if (range.isWildcardType()) {
+            return 0;
+        }
+        return range.isWildcardSubtype() ? 1 : 2;
+    }
 }
@@ -0,0 +1,217 @@
+package com.library.library_backend.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read-only data source that spreads connections over a set of PostgreSQL replicas.
+ *
+ * <p>Connections are handed out round-robin from the replicas that passed the
+ * last health check, are receiving WAL from the primary and whose replication
+ * lag is within {@code maxLag}. When no
+ * replica qualifies, the {@link StaleReadFallback} decides whether reads go to
+ * the primary, to the least-lagged reachable replica, or fail.
+ *
+ * <p>{@link #checkHealth()} is expected to be called periodically.
+ */
+public class ReplicaDataSource extends AbstractDataSource implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaDataSource.class);
+
+    /**
+     * Whether the replica is streaming from the primary, and its replication lag in seconds.
+     *
+     * <p>The lag is zero when a streaming replica has replayed everything it received, so an
+     * idle primary does not make a caught-up replica look stale. A replica whose WAL receiver
+     * is not streaming has also replayed everything it received, but receives nothing more,
+     * so it reports the age of its last replayed transaction instead. Roles without
+     * {@code pg_read_all_stats} see the receiver's row but not its status; the row only
+     * exists while the receiver is running.
+     */
+    private static final String HEALTH_SQL = """
+            WITH replica AS (
+                SELECT pg_is_in_recovery() AS in_recovery,
+                       EXISTS (
+                           SELECT 1 FROM pg_stat_wal_receiver WHERE coalesce(status, 'streaming') = 'streaming'
+                       ) AS receiving
+            )
+            SELECT NOT in_recovery OR receiving,
+                   CASE
+                       WHEN NOT in_recovery THEN 0
+                       WHEN receiving AND pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+                   END
+            FROM replica
+            """;
+
+    private static final int HEALTH_CHECK_TIMEOUT_SECONDS = 2;
+
+    private final List<Replica> replicas;
+    private final DataSource primary;
+    private final Duration maxLag;
+    private final StaleReadFallback fallback;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaDataSource(
+            List<String> names,
+            List<DataSource> replicas,
+            DataSource primary,
+            Duration maxLag,
+            StaleReadFallback fallback
+    ) {
+        if (names.size() != replicas.size()) {
+            throw new IllegalArgumentException("Every replica needs a name");
+        }
+        List<Replica> list = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            list.add(new Replica(names.get(i), replicas.get(i)));
+        }
+        this.replicas = Collections.unmodifiableList(list);
+        this.primary = primary;
+        this.maxLag = maxLag;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return select().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return select().getConnection(username, password);
+    }
+
+    /**
+     * Probe every replica and record whether it is reachable, whether it is
+     * streaming from the primary and how far it lags.
+     */
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(HEALTH_CHECK_TIMEOUT_SECONDS);
+                try (ResultSet rs = statement.executeQuery(HEALTH_SQL)) {
+                    rs.next();
+                    updateStatus(replica, true, rs.getBoolean(1), Duration.ofMillis(Math.round(rs.getDouble(2) * 1000)));
+                }
+            } catch (SQLException e) {
+                updateStatus(replica, false, replica.streaming, replica.lag);
+                logger.debug("Replica {} health check failed", replica.name, e);
+            }
+        }
+    }
+
+    /**
+     * @return name, health and lag of every replica, for health reporting
+     */
+    public List<ReplicaStatus> getStatus() {
+        return replicas.stream()
+                .map(r -> new ReplicaStatus(r.name, r.reachable, r.streaming, r.lag, isUsable(r)))
+                .toList();
+    }
+
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    logger.warn("Failed to close replica {}", replica.name, e);
+                }
+            }
+        }
+    }
+
+    void updateStatus(int index, boolean reachable, Duration lag) {
+        updateStatus(replicas.get(index), reachable, true, lag);
+    }
+
+    void updateStatus(int index, boolean reachable, boolean streaming, Duration lag) {
+        updateStatus(replicas.get(index), reachable, streaming, lag);
+    }
+
+    DataSource select() throws SQLException {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica candidate = replicas.get((start + i) % size);
+            if (isUsable(candidate)) {
+                return candidate.dataSource;
+            }
+        }
+
+        switch (fallback) {
+            case PRIMARY:
+                return primary;
+            case STALE_REPLICA:
+                Replica leastLagged = null;
+                for (Replica candidate : replicas) {
+                    if (candidate.reachable && (leastLagged == null || candidate.lag.compareTo(leastLagged.lag) < 0)) {
+                        leastLagged = candidate;
+                    }
+                }
+                if (leastLagged != null) {
+                    return leastLagged.dataSource;
+                }
+                return primary;
+            default:
+                throw new SQLException("No replica is available within the allowed replication lag");
+        }
+    }
+
+    private boolean isUsable(Replica replica) {
+        return replica.reachable && replica.streaming && replica.lag.compareTo(maxLag) <= 0;
+    }
+
+    private void updateStatus(Replica replica, boolean reachable, boolean streaming, Duration lag) {
+        if (replica.reachable != reachable) {
+            logger.info("Replica {} is now {}", replica.name, reachable ? "reachable" : "unreachable");
+        }
+        if (replica.streaming != streaming) {
+            if (streaming) {
+                logger.info("Replica {} resumed streaming from the primary", replica.name);
+            } else {
+                logger.warn("Replica {} stopped streaming from the primary", replica.name);
+            }
+        }
+        replica.lag = lag;
+        replica.streaming = streaming;
+        replica.reachable = reachable;
+    }
+
+    /**
+     * Point-in-time health of one replica.
+     */
+    public record ReplicaStatus(String name, boolean reachable, boolean streaming, Duration lag, boolean usable) {
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+
+        /** Until the first health check, replicas are assumed healthy */
+        private volatile boolean reachable = true;
+        private volatile boolean streaming = true;
+        private volatile Duration lag = Duration.ZERO;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.library.library_backend.datasource;
+
+/**
+ * What read-only work does when no replica is healthy and within the
+ * configured replication lag.
+ */
+public enum StaleReadFallback {
+
+    /** Send reads to the primary (never stale, adds load to the primary) */
+    PRIMARY,
+
+    /** Read from the least-lagged reachable replica, accepting stale data */
+    STALE_REPLICA,
+
+    /** Fail the read */
+    FAIL
+}
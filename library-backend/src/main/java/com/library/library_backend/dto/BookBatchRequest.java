@@ -0,0 +1,27 @@
+package com.library.library_backend.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+/**
+ * Request DTO for fetching several books in one call.
+ *
+ * The maximum number of ids is configured with {@code library.batch.max-ids}.
+ */
+public class BookBatchRequest {
+
+    @NotEmpty(message = "bookIds must not be empty")
+    private List<@NotBlank(message = "bookIds must not contain blank values") String> bookIds;
+
+    // Getters & Setters
+
+    public List<String> getBookIds() {
+        return bookIds;
+    }
+
+    public void setBookIds(List<String> bookIds) {
+        this.bookIds = bookIds;
+    }
+}
@@ -0,0 +1,29 @@
+package com.library.library_backend.dto;
+
+import java.util.List;
+
+/**
+ * Response DTO for a batch lookup.
+ *
+ * Found books are listed in the order of the requested ids; ids that do not
+ * match any book are listed in {@code missing} instead of failing the request.
+ */
+public class BookBatchResponse {
+
+    private final List<BookResponse> content;
+
+    private final List<String> missing;
+
+    public BookBatchResponse(List<BookResponse> content, List<String> missing) {
+        this.content = content;
+        this.missing = missing;
+    }
+
+    public List<BookResponse> getContent() {
+        return content;
+    }
+
+    public List<String> getMissing() {
+        return missing;
+    }
+}
@@ -0,0 +1,45 @@
+package com.library.library_backend.dto;
+
+/**
+ * Result of a book creation request: the book, whether it was created or
+ * already existed, and whether the result is replayed from an earlier request
+ * with the same Idempotency-Key.
+ */
+public class BookCreateResult {
+
+    public enum Outcome {
+        /** A new book was inserted */
+        CREATED,
+        /** A book with the same ISBN already exists; nothing was inserted */
+        EXISTING
+    }
+
+    private final BookResponse book;
+
+    private final Outcome outcome;
+
+    /** The Idempotency-Key was already used; outcome is that of the first request */
+    private final boolean replayed;
+
+    public BookCreateResult(BookResponse book, Outcome outcome) {
+        this(book, outcome, false);
+    }
+
+    public BookCreateResult(BookResponse book, Outcome outcome, boolean replayed) {
+        this.book = book;
+        this.outcome = outcome;
+        this.replayed = replayed;
+    }
+
+    public BookResponse getBook() {
+        return book;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    public boolean isReplayed() {
+        return replayed;
+    }
+}
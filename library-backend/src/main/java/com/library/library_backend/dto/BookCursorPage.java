@@ -0,0 +1,50 @@
+package com.library.library_backend.dto;
+
+import java.util.List;
+
+/**
+ * Response DTO for keyset (cursor-based) pagination.
+ *
+ * Clients pass {@code nextCursor} back to fetch the following page.
+ * The cursor is opaque and must not be parsed by clients.
+ */
+public class BookCursorPage {
+
+    private final List<BookResponse> content;
+
+    /** Continuation token for the next page, null on the last page */
+    private final String nextCursor;
+
+    private final boolean hasNext;
+
+    /** Total number of books, only present when explicitly requested */
+    private final Long totalElements;
+
+    public BookCursorPage(
+            List<BookResponse> content,
+            String nextCursor,
+            boolean hasNext,
+            Long totalElements
+    ) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+        this.totalElements = totalElements;
+    }
+
+    public List<BookResponse> getContent() {
+        return content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public Long getTotalElements() {
+        return totalElements;
+    }
+}
@@ -0,0 +1,55 @@
+package com.library.library_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.Instant;
+
+/**
+ * Response DTO for one entry of the book change feed.
+ *
+ * {@code sequence} increases with commit order and is also sent as the SSE
+ * event id, so clients can resume with {@code Last-Event-ID}.
+ */
+public class BookEvent {
+
+    private final long sequence;
+
+    /** CREATED, UPDATED or DELETED */
+    private final String type;
+
+    private final String bookId;
+
+    /** Book state after the change, null for deletions */
+    @JsonRawValue
+    private final String book;
+
+    private final Instant occurredAt;
+
+    public BookEvent(long sequence, String type, String bookId, String book, Instant occurredAt) {
+        this.sequence = sequence;
+        this.type = type;
+        this.bookId = bookId;
+        this.book = book;
+        this.occurredAt = occurredAt;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getBookId() {
+        return bookId;
+    }
+
+    public String getBook() {
+        return book;
+    }
+
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+}
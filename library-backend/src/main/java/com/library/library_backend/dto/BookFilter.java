@@ -0,0 +1,54 @@
+package com.library.library_backend.dto;
+
+/**
+ * Query parameters of {@code GET /api/books/filter}.
+ *
+ * All criteria are optional and combined with AND.
+ */
+public class BookFilter {
+
+    /** Exact author name, case-insensitive */
+    private String author;
+
+    /** Earliest published year, inclusive */
+    private Integer yearFrom;
+
+    /** Latest published year, inclusive */
+    private Integer yearTo;
+
+    private Boolean available;
+
+    // Getters & Setters
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public void setAuthor(String author) {
+        this.author = author;
+    }
+
+    public Integer getYearFrom() {
+        return yearFrom;
+    }
+
+    public void setYearFrom(Integer yearFrom) {
+        this.yearFrom = yearFrom;
+    }
+
+    public Integer getYearTo() {
+        return yearTo;
+    }
+
+    public void setYearTo(Integer yearTo) {
+        this.yearTo = yearTo;
+    }
+
+    public Boolean getAvailable() {
+        return available;
+    }
+
+    public void setAvailable(Boolean available) {
+        this.available = available;
+    }
+}
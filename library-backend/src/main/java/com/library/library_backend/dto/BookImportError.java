@@ -0,0 +1,25 @@
+package com.library.library_backend.dto;
+
+/**
+ * A single rejected row of a bulk import.
+ */
+public class BookImportError {
+
+    /** 1-based position of the row in the uploaded document */
+    private final long row;
+
+    private final String message;
+
+    public BookImportError(long row, String message) {
+        this.row = row;
+        this.message = message;
+    }
+
+    public long getRow() {
+        return row;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
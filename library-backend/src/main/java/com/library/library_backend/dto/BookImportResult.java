@@ -0,0 +1,59 @@
+package com.library.library_backend.dto;
+
+import java.util.List;
+
+/**
+ * Summary of a bulk import.
+ *
+ * Only the first rejected rows are listed in {@code errors}; {@code failed}
+ * always holds the full count.
+ */
+public class BookImportResult {
+
+    private final long received;
+    private final long imported;
+    private final long failed;
+    private final List<BookImportError> errors;
+    private final long durationMillis;
+    private final double rowsPerSecond;
+
+    public BookImportResult(
+            long received,
+            long imported,
+            long failed,
+            List<BookImportError> errors,
+            long durationMillis,
+            double rowsPerSecond
+    ) {
+        this.received = received;
+        this.imported = imported;
+        this.failed = failed;
+        this.errors = errors;
+        this.durationMillis = durationMillis;
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public long getReceived() {
+        return received;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public List<BookImportError> getErrors() {
+        return errors;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+}
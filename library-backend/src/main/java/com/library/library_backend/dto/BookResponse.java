@@ -1,5 +1,7 @@
 package com.library.library_backend.dto;
 
+import java.util.UUID;
+
 /**
  * Response DTO used for exposing book data via REST API.
  *
@@ -16,6 +18,28 @@ public class BookResponse {
     private Integer publishedYear;
     private Boolean available;
 
+    public BookResponse() {
+    }
+
+    /**
+     * Used by JPQL constructor expressions to select straight into the DTO.
+     */
+    public BookResponse(
+            UUID bookId,
+            String title,
+            String author,
+            String isbn,
+            Integer publishedYear,
+            Boolean available
+    ) {
+        this.bookId = bookId.toString();
+        this.title = title;
+        this.author = author;
+        this.isbn = isbn;
+        this.publishedYear = publishedYear;
+        this.available = available;
+    }
+
     // Getters & Setters
 
     public String getBookId() {
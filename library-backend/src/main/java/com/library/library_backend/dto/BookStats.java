@@ -0,0 +1,57 @@
+package com.library.library_backend.dto;
+
+import java.util.Map;
+
+/**
+ * Response DTO for catalog statistics.
+ *
+ * Read from aggregates kept up to date on every write, not counted per request.
+ */
+public class BookStats {
+
+    private final long total;
+
+    private final long available;
+
+    private final long checkedOut;
+
+    /** Book count per author, most books first */
+    private final Map<String, Long> topAuthors;
+
+    /** Book count per published year, in year order; books without a year are left out */
+    private final Map<Integer, Long> publishedYears;
+
+    public BookStats(
+            long total,
+            long available,
+            long checkedOut,
+            Map<String, Long> topAuthors,
+            Map<Integer, Long> publishedYears
+    ) {
+        this.total = total;
+        this.available = available;
+        this.checkedOut = checkedOut;
+        this.topAuthors = topAuthors;
+        this.publishedYears = publishedYears;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getAvailable() {
+        return available;
+    }
+
+    public long getCheckedOut() {
+        return checkedOut;
+    }
+
+    public Map<String, Long> getTopAuthors() {
+        return topAuthors;
+    }
+
+    public Map<Integer, Long> getPublishedYears() {
+        return publishedYears;
+    }
+}
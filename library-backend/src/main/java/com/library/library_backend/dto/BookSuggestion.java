@@ -0,0 +1,33 @@
+package com.library.library_backend.dto;
+
+/**
+ * Response DTO for one autocomplete suggestion.
+ *
+ * Carries just enough to render the suggestion and open the book.
+ */
+public class BookSuggestion {
+
+    private final String bookId;
+
+    private final String title;
+
+    private final String author;
+
+    public BookSuggestion(String bookId, String title, String author) {
+        this.bookId = bookId;
+        this.title = title;
+        this.author = author;
+    }
+
+    public String getBookId() {
+        return bookId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+}
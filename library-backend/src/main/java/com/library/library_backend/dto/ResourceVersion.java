@@ -0,0 +1,56 @@
+package com.library.library_backend.dto;
+
+import java.time.Instant;
+
+/**
+ * Version information of a book or of the whole catalog.
+ *
+ * Used internally to answer conditional GET requests (ETag / Last-Modified)
+ * without loading full entities. Never serialized to clients.
+ */
+public class ResourceVersion {
+
+    private final long version;
+    private final Instant modifiedAt;
+
+    public ResourceVersion(long version, Instant modifiedAt) {
+        this.version = version;
+        this.modifiedAt = modifiedAt;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getModifiedAt() {
+        return modifiedAt;
+    }
+
+    /**
+     * @return strong entity tag for this version
+     */
+    public String toETag() {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * @param variant representation variant (e.g. media type), so that different
+     *                representations of the same version get different tags
+     * @return strong entity tag for this version and variant
+     */
+    public String toETag(String variant) {
+        return "\"" + version + "-" + variant + "\"";
+    }
+
+    /**
+     * Weak tag for representations the servlet container may gzip: it never
+     * compresses a response with a strong tag, as the compressed bytes differ.
+     * Conditional GETs compare tags weakly, so 304s work the same.
+     *
+     * @param variant representation variant (e.g. media type)
+     * @return weak entity tag for this version and variant
+     */
+    public String toWeakETag(String variant) {
+        return "W/" + toETag(variant);
+    }
+}
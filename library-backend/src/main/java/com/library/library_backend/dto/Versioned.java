@@ -0,0 +1,27 @@
+package com.library.library_backend.dto;
+
+/**
+ * A value together with the version it was read at.
+ *
+ * Used internally so that a response is tagged (ETag / Last-Modified) with
+ * the version of the data it carries, not with a version read separately.
+ * Never serialized to clients.
+ */
+public class Versioned<T> {
+
+    private final ResourceVersion version;
+    private final T value;
+
+    public Versioned(ResourceVersion version, T value) {
+        this.version = version;
+        this.value = value;
+    }
+
+    public ResourceVersion getVersion() {
+        return version;
+    }
+
+    public T getValue() {
+        return value;
+    }
+}
@@ -17,9 +17,9 @@ import java.util.UUID;
 @Table(name = "books")
 public class BookEntity extends BaseEntity {
 
-    /** Public UUID used by REST API and clients */
+    /** Public UUID used by REST API and clients, stored as a native uuid */
     @Column(nullable = false, unique = true, updatable = false)
-    private String bookId = UUID.randomUUID().toString();
+    private UUID bookId = UuidV7.generate();
 
     /** Book title */
     @Column(nullable = false)
@@ -38,9 +38,13 @@ public class BookEntity extends BaseEntity {
     /** Availability status */
     private Boolean available = true;
 
+    /** Optimistic locking version, incremented on every update */
+    @Version
+    private Long version;
+
     // --- Getters & Setters ---
 
-    public String getBookId() {
+    public UUID getBookId() {
         return bookId;
     }
 
@@ -83,4 +87,8 @@ public class BookEntity extends BaseEntity {
     public void setAvailable(Boolean available) {
         this.available = available;
     }
+
+    public Long getVersion() {
+        return version;
+    }
 }
@@ -0,0 +1,64 @@
+package com.library.library_backend.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.util.UUID;
+
+/**
+ * Entry of the transactional outbox of book changes.
+ *
+ * The sequence number of the change feed is assigned by the database while
+ * the transaction commits (see {@code V6__create_book_events_table.sql}),
+ * so it follows commit order; the inherited id only follows insert order.
+ * Events are immutable once written.
+ */
+@Entity
+@Table(name = "book_events")
+public class BookEventEntity extends BaseEntity {
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    private BookEventType type;
+
+    /** Public UUID of the changed book */
+    @Column(nullable = false, updatable = false)
+    private UUID bookId;
+
+    /** Book state after the change as JSON, null for deletions */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(updatable = false)
+    private String payload;
+
+    /** Change feed sequence number, null until the recording transaction commits */
+    @Column(name = "seq", insertable = false, updatable = false)
+    private Long sequence;
+
+    protected BookEventEntity() {
+    }
+
+    public BookEventEntity(BookEventType type, UUID bookId, String payload) {
+        this.type = type;
+        this.bookId = bookId;
+        this.payload = payload;
+    }
+
+    // --- Getters ---
+
+    public BookEventType getType() {
+        return type;
+    }
+
+    public UUID getBookId() {
+        return bookId;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public Long getSequence() {
+        return sequence;
+    }
+}
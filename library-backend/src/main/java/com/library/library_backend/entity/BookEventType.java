@@ -0,0 +1,10 @@
+package com.library.library_backend.entity;
+
+/**
+ * Kind of change recorded in the book change feed.
+ */
+public enum BookEventType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
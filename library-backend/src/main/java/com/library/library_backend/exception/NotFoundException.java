@@ -4,4 +4,16 @@ public class NotFoundException extends RuntimeException {
     public NotFoundException(String message) {
         super(message);
     }
+
+    private NotFoundException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
+
+    /**
+     * An instance without stack trace or suppressed exceptions, for not-found
+     * paths hot enough to be thrown repeatedly; safe to share between threads.
+     */
+    public static NotFoundException stackless(String message) {
+        return new NotFoundException(message, false);
+    }
 }
@@ -14,6 +14,7 @@ import org.mapstruct.*;
 public interface BookMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "bookId", ignore = true)
+    @Mapping(target = "version", ignore = true)
     BookEntity toEntity(BookRequest request);
 
     BookResponse toResponse(BookEntity entity);
@@ -0,0 +1,32 @@
+package com.library.library_backend.repository;
+
+import com.library.library_backend.entity.BookEventEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repository layer for the book change feed outbox.
+ */
+public interface BookEventRepository extends JpaRepository<BookEventEntity, Long> {
+
+    /**
+     * Events following the given sequence number, oldest first.
+     */
+    List<BookEventEntity> findBySequenceGreaterThanOrderBySequenceAsc(Long sequence, Limit limit);
+
+    /**
+     * @return sequence number of the latest event, 0 if there is none
+     */
+    @Query("select coalesce(max(e.sequence), 0) from BookEventEntity e")
+    long findLatestSequence();
+
+    @Modifying
+    @Query("delete from BookEventEntity e where e.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") Instant cutoff);
+}
@@ -1,26 +1,158 @@
 package com.library.library_backend.repository;
 
+import com.library.library_backend.dto.BookResponse;
+import com.library.library_backend.dto.ResourceVersion;
 import com.library.library_backend.entity.BookEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repository layer for BookEntity.
  *
- * Uses Spring Data JPA method naming conventions.
+ * Uses Spring Data JPA method naming conventions. Read-only queries that
+ * select straight into {@link BookResponse} skip entity hydration and the
+ * persistence context entirely. Filtered queries are built from
+ * {@link BookSpecifications}; plain JDBC statements live in
+ * {@link BookRepositoryCustom}.
  */
-public interface BookRepository extends JpaRepository<BookEntity, Long> {
+public interface BookRepository
+        extends JpaRepository<BookEntity, Long>, JpaSpecificationExecutor<BookEntity>, BookRepositoryCustom {
 
-    Optional<BookEntity> findByBookId(String bookId);
+    /** Instantiation of the response DTO from a book {@code b} */
+    String BOOK_RESPONSE = """
+            new com.library.library_backend.dto.BookResponse(
+                b.bookId, b.title, b.author, b.isbn, b.publishedYear, b.available)""";
+
+    /** Projection of a book into its response DTO; append a where/order clause */
+    String SELECT_BOOK_RESPONSE = "select " + BOOK_RESPONSE + "\nfrom BookEntity b\n";
+
+    Optional<BookEntity> findByBookId(UUID bookId);
+
+    @Query(SELECT_BOOK_RESPONSE + "where b.bookId = :bookId")
+    Optional<BookResponse> findResponseByBookId(@Param("bookId") UUID bookId);
+
+    /**
+     * Batch lookup of several books in a single query.
+     *
+     * Rows come back in no particular order; callers restore the order they need.
+     */
+    @Query(SELECT_BOOK_RESPONSE + "where b.bookId in :bookIds")
+    List<BookResponse> findResponsesByBookIdIn(@Param("bookIds") Collection<UUID> bookIds);
+
+    /**
+     * Lookup by ISBN; only unique while the {@code ux_books_isbn} index exists.
+     */
+    @Query(SELECT_BOOK_RESPONSE + "where b.isbn = :isbn")
+    Optional<BookResponse> findResponseByIsbn(@Param("isbn") String isbn);
+
+    @Query(SELECT_BOOK_RESPONSE)
+    List<BookResponse> findAllResponses();
+
+    @Query(value = SELECT_BOOK_RESPONSE, countQuery = "select count(b) from BookEntity b")
+    Page<BookResponse> findAllResponses(Pageable pageable);
+
+    /**
+     * One page of books without a count query; the total is taken from
+     * {@link BookStatsRepository#countBooks()}.
+     */
+    @Query(SELECT_BOOK_RESPONSE)
+    List<BookResponse> findResponses(Pageable pageable);
+
+    boolean existsByBookId(UUID bookId);
+
+    /**
+     * Lightweight lookup of a book's version, used for conditional GETs.
+     */
+    @Query("""
+            select new com.library.library_backend.dto.ResourceVersion(b.version, b.modifiedAt)
+            from BookEntity b
+            where b.bookId = :bookId
+            """)
+    Optional<ResourceVersion> findVersionByBookId(@Param("bookId") UUID bookId);
 
     Page<BookEntity> findAll(Pageable pageable);
 
-    List<BookEntity> findByTitleContainingIgnoreCaseOrAuthorContainingIgnoreCase(
-            String title,
-            String author
+    /**
+     * Keyset pagination: books with an id greater than the given one, in id
+     * order, each with its id for the continuation token.
+     *
+     * Uses the primary key index to seek directly to the first row of the page
+     * and does not issue a count query.
+     */
+    @Query("select new com.library.library_backend.repository.BookRepository$KeyedResponse(b.id, "
+            + BOOK_RESPONSE + ")\nfrom BookEntity b\nwhere b.id > :id\norder by b.id")
+    List<KeyedResponse> findResponsesAfter(@Param("id") long id, Limit limit);
+
+    /**
+     * Streams all books, as DTOs, through a forward-only cursor.
+     *
+     * Must be consumed inside a transaction; rows are fetched from the
+     * database in chunks of the configured fetch size instead of all at once.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query(SELECT_BOOK_RESPONSE + "order by b.bookId")
+    Stream<BookResponse> streamAllResponses();
+
+    /**
+     * Streams the bookId of every book through a forward-only cursor.
+     *
+     * Must be consumed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select b.bookId from BookEntity b")
+    Stream<UUID> streamAllBookIds();
+
+    /**
+     * Ranked, case-insensitive substring search on title and author.
+     *
+     * The LIKE predicates are served by the trigram indexes from
+     * {@code V2__add_books_search_indexes.sql}; results are ordered by trigram
+     * similarity to the query, best match first.
+     *
+     * @param query  raw search text, used for ranking
+     * @param pattern LIKE pattern built from the escaped query ({@code %query%})
+     */
+    @Query(value = """
+            SELECT b.* FROM books b
+            WHERE lower(b.title) LIKE lower(:pattern) OR lower(b.author) LIKE lower(:pattern)
+            ORDER BY GREATEST(
+                         similarity(lower(b.title), lower(:query)),
+                         similarity(lower(b.author), lower(:query))
+                     ) DESC,
+                     b.id
+            LIMIT :limit OFFSET :offset
+            """, nativeQuery = true)
+    List<BookEntity> search(
+            @Param("query") String query,
+            @Param("pattern") String pattern,
+            @Param("limit") int limit,
+            @Param("offset") int offset
     );
+
+    /**
+     * @param id   database id of the book, used as the keyset position
+     * @param book the book as returned to clients
+     */
+    record KeyedResponse(long id, BookResponse book) {
+    }
 }
@@ -0,0 +1,59 @@
+package com.library.library_backend.repository;
+
+import com.library.library_backend.dto.BookResponse;
+import com.library.library_backend.entity.BookEntity;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Statements on books that JPA cannot express, implemented with plain JDBC
+ * in {@link BookRepositoryCustomImpl}.
+ */
+public interface BookRepositoryCustom {
+
+    /**
+     * Insert a book unless one with the same ISBN exists, in a single
+     * {@code INSERT ... ON CONFLICT DO NOTHING}.
+     *
+     * Requires the unique index {@code ux_books_isbn}. The entity is not
+     * attached to the persistence context.
+     *
+     * @return true if the book was inserted
+     */
+    boolean insertIfIsbnAbsent(BookEntity book, Instant now);
+
+    /**
+     * @return whether the unique ISBN index exists
+     */
+    boolean hasUniqueIsbnIndex();
+
+    /**
+     * Flips the availability of a book in a single statement.
+     *
+     * The row is updated in place and returned, so there is no separate read
+     * and concurrent toggles cannot overwrite each other.
+     *
+     * The updated row is mapped straight to a response rather than to an
+     * entity: a native {@code RETURNING} read through JPA would hand back an
+     * already managed {@link BookEntity} with its stale values instead. An
+     * entity of the book loaded earlier in the same transaction is not
+     * refreshed either, so callers must not load or change one before.
+     *
+     * @return the updated book, or empty if no book has the given bookId
+     */
+    Optional<BookResponse> toggleAvailability(UUID bookId, Instant modifiedAt);
+
+    /**
+     * Compare-and-set of the availability of a book.
+     *
+     * The update only happens if the book is not already in the requested state,
+     * e.g. a checkout only succeeds while the book is available. Bypasses the
+     * persistence context like {@link #toggleAvailability}.
+     *
+     * @return the updated book, or empty if the book does not exist or already
+     *         had the requested availability
+     */
+    Optional<BookResponse> updateAvailabilityIfChanged(UUID bookId, boolean available, Instant modifiedAt);
+}
@@ -0,0 +1,92 @@
+package com.library.library_backend.repository;
+
+import com.library.library_backend.dto.BookResponse;
+import com.library.library_backend.entity.BookEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * JDBC implementation of {@link BookRepositoryCustom}, picked up by Spring Data
+ * as a fragment of {@link BookRepository}.
+ */
+class BookRepositoryCustomImpl implements BookRepositoryCustom {
+
+    private static final String INSERT_IF_ISBN_ABSENT_SQL = """
+            INSERT INTO books (book_id, title, author, isbn, published_year, available, created_at, modified_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (isbn) WHERE isbn IS NOT NULL DO NOTHING
+            """;
+
+    private static final String TOGGLE_AVAILABILITY_SQL = """
+            UPDATE books
+            SET available = NOT COALESCE(available, TRUE),
+                version = version + 1,
+                modified_at = ?
+            WHERE book_id = ?
+            RETURNING book_id, title, author, isbn, published_year, available
+            """;
+
+    private static final String UPDATE_AVAILABILITY_IF_CHANGED_SQL = """
+            UPDATE books
+            SET available = ?,
+                version = version + 1,
+                modified_at = ?
+            WHERE book_id = ?
+              AND COALESCE(available, TRUE) <> ?
+            RETURNING book_id, title, author, isbn, published_year, available
+            """;
+
+    private static final RowMapper<BookResponse> RESPONSE_MAPPER = (rs, rowNum) -> new BookResponse(
+            rs.getObject("book_id", UUID.class),
+            rs.getString("title"),
+            rs.getString("author"),
+            rs.getString("isbn"),
+            rs.getObject("published_year", Integer.class),
+            rs.getObject("available", Boolean.class)
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    BookRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public boolean insertIfIsbnAbsent(BookEntity book, Instant now) {
+        Timestamp timestamp = Timestamp.from(now);
+        return jdbcTemplate.update(INSERT_IF_ISBN_ABSENT_SQL, ps -> {
+            ps.setObject(1, book.getBookId());
+            ps.setString(2, book.getTitle());
+            ps.setString(3, book.getAuthor());
+            ps.setString(4, book.getIsbn());
+            ps.setObject(5, book.getPublishedYear(), Types.INTEGER);
+            ps.setObject(6, book.getAvailable(), Types.BOOLEAN);
+            ps.setTimestamp(7, timestamp);
+            ps.setTimestamp(8, timestamp);
+        }) == 1;
+    }
+
+    @Override
+    public boolean hasUniqueIsbnIndex() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT to_regclass('ux_books_isbn') IS NOT NULL", Boolean.class));
+    }
+
+    @Override
+    public Optional<BookResponse> toggleAvailability(UUID bookId, Instant modifiedAt) {
+        return jdbcTemplate.query(TOGGLE_AVAILABILITY_SQL, RESPONSE_MAPPER,
+                Timestamp.from(modifiedAt), bookId).stream().findFirst();
+    }
+
+    @Override
+    public Optional<BookResponse> updateAvailabilityIfChanged(UUID bookId, boolean available, Instant modifiedAt) {
+        return jdbcTemplate.query(UPDATE_AVAILABILITY_IF_CHANGED_SQL, RESPONSE_MAPPER,
+                available, Timestamp.from(modifiedAt), bookId, available).stream().findFirst();
+    }
+}
@@ -0,0 +1,48 @@
+package com.library.library_backend.repository;
+
+import com.library.library_backend.entity.BookEntity;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Filter criteria for {@link BookRepository#findAll(Specification, org.springframework.data.domain.Pageable)}.
+ *
+ * Each predicate matches an index from {@code V7__add_books_filter_indexes.sql};
+ * keep the expressions in sync with the index definitions.
+ */
+public final class BookSpecifications {
+
+    private BookSpecifications() {
+    }
+
+    /**
+     * {@code lower(author) = lower(?)}, served by {@code idx_books_author_year}
+     * when sorted by year or narrowed by a year range. In createdAt order the
+     * planner may walk the primary key instead, which fills a page sooner.
+     */
+    public static Specification<BookEntity> authorIs(String author) {
+        return (root, query, cb) -> cb.equal(cb.lower(root.get("author")), author.toLowerCase());
+    }
+
+    /** Served by {@code idx_books_published_year}, or the author index when combined */
+    public static Specification<BookEntity> publishedFrom(int year) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("publishedYear"), year);
+    }
+
+    public static Specification<BookEntity> publishedUntil(int year) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("publishedYear"), year);
+    }
+
+    /**
+     * Availability, with a missing value counting as available.
+     *
+     * Rendered as a literal rather than a bind parameter, so the planner can
+     * match the partial index {@code idx_books_checked_out} for checked-out
+     * books (the minority) even with cached generic plans. A filter on
+     * available books matches most of the table and is left to a sequential scan.
+     */
+    public static Specification<BookEntity> availableIs(boolean available) {
+        return (root, query, cb) -> available
+                ? cb.or(cb.isNull(root.get("available")), cb.isTrue(root.get("available")))
+                : cb.isFalse(root.get("available"));
+    }
+}
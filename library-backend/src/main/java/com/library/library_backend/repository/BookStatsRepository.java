@@ -0,0 +1,75 @@
+package com.library.library_backend.repository;
+
+import com.library.library_backend.dto.BookStats;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reads catalog statistics from the {@code book_stats} table.
+ *
+ * The table is maintained by database triggers on {@code books}
+ * (see {@code V9__create_book_stats_table.sql}), so every read is a handful of
+ * rows whatever the size of the catalog.
+ */
+@Repository
+public class BookStatsRepository {
+
+    private static final String COUNT_SQL =
+            "SELECT book_count FROM book_stats WHERE dimension = 'total' AND name = ''";
+
+    // One statement, so all figures come from the same snapshot
+    private static final String SELECT_SQL = """
+            SELECT dimension, name, book_count FROM book_stats
+            WHERE dimension IN ('total', 'availability', 'year') AND book_count > 0
+            UNION ALL
+            (SELECT dimension, name, book_count FROM book_stats
+             WHERE dimension = 'author' AND book_count > 0
+             ORDER BY book_count DESC, name
+             LIMIT ?)
+            ORDER BY book_count DESC, name
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BookStatsRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return number of books in the catalog
+     */
+    public long countBooks() {
+        Long count = jdbcTemplate.queryForObject(COUNT_SQL, Long.class);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * @param topAuthors number of authors to include
+     * @return current catalog statistics
+     */
+    public BookStats findStats(int topAuthors) {
+        long[] totals = new long[3];
+        Map<String, Long> authors = new LinkedHashMap<>();
+        Map<Integer, Long> years = new TreeMap<>();
+
+        jdbcTemplate.query(SELECT_SQL, rs -> {
+            String name = rs.getString("name");
+            long count = rs.getLong("book_count");
+            switch (rs.getString("dimension")) {
+                case "total" -> totals[0] = count;
+                case "availability" -> totals["available".equals(name) ? 1 : 2] = count;
+                case "author" -> authors.put(name, count);
+                case "year" -> years.put(Integer.valueOf(name), count);
+                default -> {
+                    // Dimension added by a later migration
+                }
+            }
+        }, topAuthors);
+
+        return new BookStats(totals[0], totals[1], totals[2], authors, years);
+    }
+}
@@ -0,0 +1,40 @@
+package com.library.library_backend.repository;
+
+import com.library.library_backend.dto.ResourceVersion;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Reads collection-level versions from the {@code catalog_versions} table.
+ *
+ * The table is maintained by database triggers on {@code books}
+ * (see {@code V4__add_catalog_version.sql}). The books version is bumped when
+ * a write commits and equals the change feed sequence number of its last
+ * event (see {@code V6__create_book_events_table.sql}).
+ */
+@Repository
+public class CatalogVersionRepository {
+
+    private static final String SELECT_SQL =
+            "SELECT version, modified_at FROM catalog_versions WHERE name = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CatalogVersionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return current version of the books catalog
+     */
+    public ResourceVersion findBooksVersion() {
+        return jdbcTemplate.queryForObject(
+                SELECT_SQL,
+                (rs, rowNum) -> new ResourceVersion(
+                        rs.getLong("version"),
+                        rs.getTimestamp("modified_at").toInstant()
+                ),
+                "books"
+        );
+    }
+}
@@ -0,0 +1,101 @@
+package com.library.library_backend.repository;
+
+import com.library.library_backend.dto.BookCreateResult;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Idempotency keys of book creation requests, in the {@code idempotency_keys}
+ * table (see {@code V8__add_idempotency_keys_and_unique_isbn.sql}).
+ */
+@Repository
+public class IdempotencyKeyRepository {
+
+    /** Inserts a new key, or takes over an expired one; a live key is left alone */
+    private static final String CLAIM_SQL = """
+            INSERT INTO idempotency_keys (idempotency_key, request_hash, created_at, expires_at)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (idempotency_key) DO UPDATE
+            SET request_hash = EXCLUDED.request_hash,
+                book_id = NULL,
+                outcome = NULL,
+                created_at = EXCLUDED.created_at,
+                expires_at = EXCLUDED.expires_at
+            WHERE idempotency_keys.expires_at <= EXCLUDED.created_at
+            """;
+
+    private static final String SELECT_SQL =
+            "SELECT request_hash, book_id, outcome FROM idempotency_keys WHERE idempotency_key = ?";
+
+    private static final String COMPLETE_SQL =
+            "UPDATE idempotency_keys SET book_id = ?, outcome = ? WHERE idempotency_key = ?";
+
+    private static final String DELETE_EXPIRED_SQL =
+            "DELETE FROM idempotency_keys WHERE expires_at <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdempotencyKeyRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Claim a key in a single statement.
+     *
+     * If another transaction holds the key uncommitted, this blocks until it
+     * commits (key is taken) or rolls back (key is claimed).
+     *
+     * @return true if the current transaction now owns the key
+     */
+    public boolean claim(String key, String requestHash, Instant now, Instant expiresAt) {
+        return jdbcTemplate.update(
+                CLAIM_SQL,
+                key,
+                requestHash,
+                Timestamp.from(now),
+                Timestamp.from(expiresAt)
+        ) == 1;
+    }
+
+    public Optional<StoredKey> find(String key) {
+        return jdbcTemplate.query(
+                SELECT_SQL,
+                (rs, rowNum) -> {
+                    String outcome = rs.getString("outcome");
+                    return new StoredKey(
+                            rs.getString("request_hash"),
+                            rs.getObject("book_id", UUID.class),
+                            outcome == null ? null : BookCreateResult.Outcome.valueOf(outcome)
+                    );
+                },
+                key
+        ).stream().findFirst();
+    }
+
+    /**
+     * Record the book a claimed key resulted in, and whether it was created.
+     */
+    public void complete(String key, UUID bookId, BookCreateResult.Outcome outcome) {
+        jdbcTemplate.update(COMPLETE_SQL, bookId, outcome.name(), key);
+    }
+
+    /**
+     * @return number of deleted keys
+     */
+    public int deleteExpired(Instant now) {
+        return jdbcTemplate.update(DELETE_EXPIRED_SQL, Timestamp.from(now));
+    }
+
+    /**
+     * @param requestHash hash of the request that claimed the key
+     * @param bookId      resulting book, null while that request is in flight
+     * @param outcome     whether that book was created or already existed
+     */
+    public record StoredKey(String requestHash, UUID bookId, BookCreateResult.Outcome outcome) {
+    }
+}
@@ -0,0 +1,53 @@
+package com.library.library_backend.service;
+
+import com.library.library_backend.config.CacheConfig;
+import com.library.library_backend.dto.BookEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Evicts cached books changed on any instance.
+ *
+ * <p>Writes on this instance evict their own entries after commit.
+ * Changes committed by other instances and by imports only reach this
+ * instance through the change feed outbox, so the {@link BookEventFollower}
+ * evicts every changed book here too, instead of leaving it stale until the
+ * entry expires.
+ */
+@Service
+public class BookCacheInvalidator implements BookEventConsumer {
+
+    private final BookEventService eventService;
+    private final Cache books;
+
+    public BookCacheInvalidator(BookEventService eventService, CacheManager cacheManager) {
+        this.eventService = eventService;
+        this.books = Objects.requireNonNull(cacheManager.getCache(CacheConfig.BOOKS_CACHE));
+    }
+
+    /**
+     * Drop entries cached before the outbox is followed.
+     */
+    @Override
+    public long load() {
+        long position = eventService.getLatestSequence();
+        books.clear();
+        return position;
+    }
+
+    @Override
+    public void apply(List<BookEvent> events) {
+        for (BookEvent event : events) {
+            books.evict(event.getBookId());
+        }
+    }
+
+    @Override
+    public void caughtUp(long position, long startedAt) {
+        // Evictions take effect immediately
+    }
+}
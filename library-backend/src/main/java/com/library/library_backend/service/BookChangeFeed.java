@@ -0,0 +1,156 @@
+package com.library.library_backend.service;
+
+import com.library.library_backend.dto.BookEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Server-Sent Events stream of the book change feed.
+ *
+ * <p>Each subscriber is served by its own loop on a virtual thread: it reads a
+ * bounded batch of events after the subscriber's position, writes them, and
+ * only then reads the next batch. A slow client therefore blocks its own loop
+ * on the socket instead of buffering events in memory. When caught up, the
+ * loop waits for the next commit (or the poll interval, for commits on other
+ * instances) and sends a heartbeat comment while idle.
+ *
+ * <p>The number of concurrent subscribers is bounded by
+ * {@code library.events.max-subscribers}.
+ */
+@Service
+public class BookChangeFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookChangeFeed.class);
+
+    private final BookEventService eventService;
+    private final Semaphore subscribers;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Duration heartbeatInterval;
+    private final Duration streamTimeout;
+    private final ExecutorService executor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("book-events-", 0).factory());
+
+    public BookChangeFeed(
+            BookEventService eventService,
+            MeterRegistry meterRegistry,
+            @Value("${library.events.max-subscribers:100}") int maxSubscribers,
+            @Value("${library.events.batch-size:500}") int batchSize,
+            @Value("${library.events.poll-interval:1s}") Duration pollInterval,
+            @Value("${library.events.heartbeat-interval:15s}") Duration heartbeatInterval,
+            @Value("${library.events.stream-timeout:30m}") Duration streamTimeout
+    ) {
+        this.eventService = eventService;
+        this.subscribers = new Semaphore(maxSubscribers);
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.heartbeatInterval = heartbeatInterval;
+        this.streamTimeout = streamTimeout;
+
+        Gauge.builder("library.events.subscribers", subscribers, s -> maxSubscribers - s.availablePermits())
+                .description("Open change feed streams")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Open a stream of events following the given position.
+     *
+     * <p>The first message is a {@code ready} event whose id is the starting
+     * position. Without a position the stream starts at the latest event.
+     *
+     * @param after last sequence number the consumer has seen, or null
+     * @return the stream, or empty if the subscriber limit is reached
+     */
+    public Optional<SseEmitter> subscribe(Long after) {
+        if (!subscribers.tryAcquire()) {
+            return Optional.empty();
+        }
+        try {
+            long position = after != null ? Math.max(after, 0) : eventService.getLatestSequence();
+            Subscription subscription = new Subscription(new SseEmitter(streamTimeout.toMillis()), position);
+            executor.execute(subscription::run);
+            return Optional.of(subscription.emitter);
+        } catch (RuntimeException e) {
+            subscribers.release();
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private final class Subscription {
+
+        private final SseEmitter emitter;
+        private long position;
+        private volatile boolean closed;
+
+        Subscription(SseEmitter emitter, long position) {
+            this.emitter = emitter;
+            this.position = position;
+            emitter.onCompletion(() -> closed = true);
+            emitter.onTimeout(() -> closed = true);
+            emitter.onError(e -> closed = true);
+        }
+
+        void run() {
+            try {
+                emitter.send(SseEmitter.event().name("ready").id(Long.toString(position)).data(position));
+                long lastSent = System.nanoTime();
+
+                while (!closed) {
+                    long generation = eventService.currentGeneration();
+                    List<BookEvent> events = eventService.getEventsAfter(position, batchSize);
+                    for (BookEvent event : events) {
+                        emitter.send(SseEmitter.event()
+                                .id(Long.toString(event.getSequence()))
+                                .name(event.getType())
+                                .data(event, MediaType.APPLICATION_JSON));
+                        position = event.getSequence();
+                    }
+
+                    if (!events.isEmpty()) {
+                        lastSent = System.nanoTime();
+                        if (events.size() == batchSize) {
+                            continue;
+                        }
+                    } else if (System.nanoTime() - lastSent >= heartbeatInterval.toNanos()) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                        lastSent = System.nanoTime();
+                    }
+
+                    eventService.awaitEvents(generation, pollInterval);
+                }
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                // Client disconnected or the stream timed out
+                logger.debug("[EVENTS] Stream closed at sequence {}", position);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                emitter.complete();
+            } catch (RuntimeException e) {
+                logger.warn("[EVENTS] Stream failed at sequence {}", position, e);
+                emitter.completeWithError(e);
+            } finally {
+                subscribers.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.library.library_backend.service;
+
+import com.library.library_backend.exception.BadRequestException;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token used by keyset pagination.
+ *
+ * The token wraps the database id of the last book on a page. It is encoded
+ * so that clients treat it as an opaque value rather than an offset.
+ */
+final class BookCursor {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private BookCursor() {
+    }
+
+    static String encode(long lastId) {
+        return ENCODER.encodeToString(ByteBuffer.allocate(Long.BYTES).putLong(lastId).array());
+    }
+
+    /**
+     * @param cursor token previously returned to the client, or null for the first page
+     * @return id after which the next page starts
+     * @throws BadRequestException if the token is malformed
+     */
+    static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            byte[] bytes = DECODER.decode(cursor);
+            if (bytes.length != Long.BYTES) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return ByteBuffer.wrap(bytes).getLong();
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
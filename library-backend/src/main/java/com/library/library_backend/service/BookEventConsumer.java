@@ -0,0 +1,45 @@
+package com.library.library_backend.service;
+
+import com.library.library_backend.dto.BookEvent;
+
+import java.util.List;
+
+/**
+ * In-memory view of the catalog kept up to date by {@link BookEventFollower}.
+ *
+ * <p>All methods are called from one thread at a time: {@link #load()} once
+ * the application is ready, then {@link #apply} and {@link #caughtUp} from
+ * the follower, so implementations need no locking of their own for them.
+ */
+public interface BookEventConsumer {
+
+    /**
+     * @return whether this consumer is loaded and followed at all
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Load the current catalog.
+     *
+     * @return sequence number of the last event the loaded state includes;
+     *         read before the catalog, in the same transaction
+     */
+    long load();
+
+    /**
+     * Apply committed events following the loaded or last applied position,
+     * oldest first. Applying an event twice must be harmless.
+     */
+    void apply(List<BookEvent> events);
+
+    /**
+     * Every event committed up to now was applied; publish the result.
+     *
+     * @param position  sequence number of the last applied event
+     * @param startedAt time (Unix millis) before the events were read; all
+     *                  events committed before it are applied
+     */
+    void caughtUp(long position, long startedAt);
+}
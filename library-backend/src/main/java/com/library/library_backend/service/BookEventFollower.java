@@ -0,0 +1,170 @@
+package com.library.library_backend.service;
+
+import com.library.library_backend.dto.BookEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps every {@link BookEventConsumer} up to date from the change feed outbox.
+ *
+ * <p>Consumers are loaded once the application is ready. A single background
+ * loop then reads committed events from the primary and hands each batch to
+ * every consumer. It wakes up right after a commit on this instance, and
+ * re-checks within {@code library.events.poll-interval} for commits on other
+ * instances, so request threads never wait for events to be applied.
+ */
+@Service
+public class BookEventFollower {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookEventFollower.class);
+
+    private static final int EVENT_BATCH_SIZE = 500;
+
+    private final BookEventService eventService;
+    private final List<BookEventConsumer> consumers;
+    private final Duration pollInterval;
+    private final ExecutorService executor =
+            Executors.newSingleThreadExecutor(Thread.ofVirtual().name("book-event-follower").factory());
+
+    /** Enabled consumers and their positions; confined to the loop once it runs */
+    private final List<Follower> followers = new ArrayList<>();
+
+    /** Lowest position of any consumer; everything up to it was applied by all */
+    private long position;
+
+    public BookEventFollower(
+            BookEventService eventService,
+            List<BookEventConsumer> consumers,
+            @Value("${library.events.poll-interval:1s}") Duration pollInterval
+    ) {
+        this.eventService = eventService;
+        this.consumers = consumers;
+        this.pollInterval = pollInterval;
+    }
+
+    /**
+     * Load all enabled consumers and start following the outbox.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (load()) {
+            executor.execute(this::run);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return whether any consumer is enabled
+     */
+    boolean load() {
+        for (BookEventConsumer consumer : consumers) {
+            if (consumer.isEnabled()) {
+                followers.add(new Follower(consumer, consumer.load()));
+            }
+        }
+        position = minPosition(followers);
+        return !followers.isEmpty();
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            long generation = eventService.currentGeneration();
+            try {
+                catchUp();
+            } catch (RuntimeException e) {
+                logger.warn("[EVENTS] Following the outbox failed at sequence {}, retrying", position, e);
+            }
+            try {
+                eventService.awaitEvents(generation, pollInterval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Apply all committed events to every consumer. Consumers only get the
+     * events after their own position, so one that failed is retried without
+     * the others seeing an event twice. A consumer that fails is left behind
+     * for this round; the others still catch up and publish.
+     */
+    void catchUp() {
+        long startedAt = System.currentTimeMillis();
+        List<Follower> following = new ArrayList<>(followers);
+        List<BookEvent> events;
+        do {
+            long after = minPosition(following);
+            events = eventService.getEventsAfterOnPrimary(after, EVENT_BATCH_SIZE);
+            if (events.isEmpty()) {
+                break;
+            }
+            long last = events.get(events.size() - 1).getSequence();
+            for (Iterator<Follower> it = following.iterator(); it.hasNext(); ) {
+                Follower follower = it.next();
+                if (follower.position < last && !apply(follower, events, after, last)) {
+                    it.remove();
+                }
+            }
+        } while (!following.isEmpty() && events.size() == EVENT_BATCH_SIZE);
+        position = minPosition(followers);
+
+        for (Follower follower : following) {
+            try {
+                follower.consumer.caughtUp(follower.position, startedAt);
+            } catch (RuntimeException e) {
+                logger.warn("[EVENTS] {} failed to publish sequence {}", follower.name(), follower.position, e);
+            }
+        }
+    }
+
+    /**
+     * @return whether the consumer applied the batch and moved to {@code last}
+     */
+    private boolean apply(Follower follower, List<BookEvent> events, long batchAfter, long last) {
+        long after = follower.position;
+        try {
+            follower.consumer.apply(after <= batchAfter ? events
+                    : events.stream().filter(event -> event.getSequence() > after).toList());
+        } catch (RuntimeException e) {
+            logger.warn("[EVENTS] {} failed to apply events after sequence {}, retrying", follower.name(), after, e);
+            return false;
+        }
+        follower.position = last;
+        return true;
+    }
+
+    private static long minPosition(List<Follower> followers) {
+        return followers.stream().mapToLong(follower -> follower.position).min().orElse(0);
+    }
+
+    private static final class Follower {
+
+        private final BookEventConsumer consumer;
+        private long position;
+
+        Follower(BookEventConsumer consumer, long position) {
+            this.consumer = consumer;
+            this.position = position;
+        }
+
+        String name() {
+            return consumer.getClass().getSimpleName();
+        }
+    }
+}
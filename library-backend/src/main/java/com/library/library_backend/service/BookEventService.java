@@ -0,0 +1,200 @@
+package com.library.library_backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.library_backend.dto.BookEvent;
+import com.library.library_backend.dto.BookResponse;
+import com.library.library_backend.entity.BookEventEntity;
+import com.library.library_backend.entity.BookEventType;
+import com.library.library_backend.repository.BookEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Transactional outbox of book changes.
+ *
+ * <p>Every write in {@link BookService} and {@link BookImportService} records
+ * an event in the same transaction as the change, so an event exists if and
+ * only if the change committed. Events are read back in sequence order by the
+ * change feed.
+ *
+ * <p>Streams and the {@link BookEventFollower} waiting for new events are woken
+ * up after a recording transaction commits. Changes committed by other
+ * instances are picked up by their periodic re-check.
+ */
+@Service
+public class BookEventService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookEventService.class);
+
+    private final BookEventRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Duration retention;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition committed = lock.newCondition();
+
+    /** Incremented after every commit that recorded events on this instance */
+    private volatile long generation;
+
+    public BookEventService(
+            BookEventRepository repository,
+            ObjectMapper objectMapper,
+            @Value("${library.events.retention:7d}") Duration retention
+    ) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.retention = retention;
+    }
+
+    /**
+     * Record a change of a book in the current transaction.
+     *
+     * <p>The event gets its sequence number when the transaction commits.
+     *
+     * @param type   kind of change
+     * @param bookId changed book
+     * @param book   state after the change, null for deletions
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(BookEventType type, UUID bookId, BookResponse book) {
+        repository.save(new BookEventEntity(type, bookId, book == null ? null : toJson(book)));
+        notifyAfterCommit();
+    }
+
+    /**
+     * Serialize a book the way it is stored in the event payload.
+     */
+    String toJson(BookResponse book) {
+        try {
+            return objectMapper.writeValueAsString(book);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize book event", e);
+        }
+    }
+
+    /**
+     * Wake up waiting streams once the current transaction commits, or
+     * immediately when there is no transaction.
+     */
+    void notifyAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            signal();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                signal();
+            }
+        });
+    }
+
+    /**
+     * Events following the given sequence number, oldest first.
+     *
+     * @param after last sequence number the consumer has seen
+     * @param limit maximum number of events
+     */
+    @Transactional(readOnly = true)
+    public List<BookEvent> getEventsAfter(long after, int limit) {
+        return findEventsAfter(after, limit);
+    }
+
+    /**
+     * Like {@link #getEventsAfter}, but always read from the primary, so a
+     * lagging replica never hides an event committed on this instance.
+     * Used by {@link BookEventFollower}.
+     */
+    @Transactional
+    public List<BookEvent> getEventsAfterOnPrimary(long after, int limit) {
+        return findEventsAfter(after, limit);
+    }
+
+    private List<BookEvent> findEventsAfter(long after, int limit) {
+        return repository.findBySequenceGreaterThanOrderBySequenceAsc(after, Limit.of(limit))
+                .stream()
+                .map(event -> new BookEvent(
+                        event.getSequence(),
+                        event.getType().name(),
+                        event.getBookId().toString(),
+                        event.getPayload(),
+                        event.getCreatedAt()
+                ))
+                .toList();
+    }
+
+    /**
+     * @return sequence number of the latest event, 0 if there is none
+     */
+    @Transactional(readOnly = true)
+    public long getLatestSequence() {
+        return repository.findLatestSequence();
+    }
+
+    /**
+     * @return token to pass to {@link #awaitEvents(long, Duration)}; read it
+     *         before querying for events so no commit in between is missed
+     */
+    public long currentGeneration() {
+        return generation;
+    }
+
+    /**
+     * Block until events were committed on this instance since the given
+     * generation was read, or the timeout elapses.
+     */
+    public void awaitEvents(long generation, Duration timeout) throws InterruptedException {
+        long nanos = timeout.toNanos();
+        lock.lock();
+        try {
+            while (this.generation == generation && nanos > 0) {
+                nanos = committed.awaitNanos(nanos);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void signal() {
+        lock.lock();
+        try {
+            generation++;
+            committed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Delete events older than {@code library.events.retention}.
+     *
+     * Consumers that fall further behind have to resynchronize from the catalog.
+     */
+    @Scheduled(
+            fixedDelayString = "${library.events.purge-interval:PT1H}",
+            initialDelayString = "${library.events.purge-interval:PT1H}"
+    )
+    @Transactional
+    public void purgeExpired() {
+        int deleted = repository.deleteCreatedBefore(Instant.now().minus(retention));
+        if (deleted > 0) {
+            logger.info("[EVENTS] Purged {} events older than {}", deleted, retention);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.library.library_backend.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.library.library_backend.dto.BookResponse;
+import com.library.library_backend.dto.ResourceVersion;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Writes the whole catalog straight to an output stream.
+ *
+ * <p>Books are serialized one by one as they come off the database cursor,
+ * so neither the entities nor the DTOs of the full catalog are ever held
+ * in memory at the same time.
+ *
+ * <p>Besides JSON and NDJSON, the catalog can be written as a CBOR or Smile
+ * array, using the same object mappers as the binary message converters.
+ *
+ * <p>Every writer reports the catalog version the books are read at before
+ * writing anything, so the response can be tagged with it.
+ *
+ * <p>When the {@link CatalogSnapshot} is enabled and current, the JSON array
+ * can be copied from it instead of being read from the database.
+ */
+@Service
+public class BookExportService {
+
+    private final BookService bookService;
+    private final CatalogSnapshot snapshot;
+    private final ObjectWriter jsonWriter;
+    private final ObjectWriter cborWriter;
+    private final ObjectWriter smileWriter;
+
+    public BookExportService(
+            BookService bookService,
+            CatalogSnapshot snapshot,
+            ObjectMapper objectMapper,
+            MappingJackson2CborHttpMessageConverter cborConverter,
+            MappingJackson2SmileHttpMessageConverter smileConverter
+    ) {
+        this.bookService = bookService;
+        this.snapshot = snapshot;
+        this.jsonWriter = bookWriter(objectMapper);
+        this.cborWriter = bookWriter(cborConverter.getObjectMapper());
+        this.smileWriter = bookWriter(smileConverter.getObjectMapper());
+    }
+
+    /**
+     * Write all books as a single JSON array.
+     *
+     * @param out       target stream (not closed by this method)
+     * @param onVersion receives the catalog version the books are read at
+     * @return number of books written
+     */
+    public long writeJsonArray(OutputStream out, Consumer<ResourceVersion> onVersion) throws IOException {
+        return writeArray(jsonWriter, out, onVersion);
+    }
+
+    /**
+     * The pre-serialized JSON array of the catalog, if the
+     * {@link CatalogSnapshot} is enabled and holds exactly the given version.
+     */
+    public Optional<CatalogSnapshot.View> findJsonSnapshot(ResourceVersion version) {
+        return snapshot.at(version.getVersion());
+    }
+
+    /**
+     * Write all books as a single CBOR array.
+     *
+     * @param out       target stream (not closed by this method)
+     * @param onVersion receives the catalog version the books are read at
+     * @return number of books written
+     */
+    public long writeCborArray(OutputStream out, Consumer<ResourceVersion> onVersion) throws IOException {
+        return writeArray(cborWriter, out, onVersion);
+    }
+
+    /**
+     * Write all books as a single Smile array.
+     *
+     * @param out       target stream (not closed by this method)
+     * @param onVersion receives the catalog version the books are read at
+     * @return number of books written
+     */
+    public long writeSmileArray(OutputStream out, Consumer<ResourceVersion> onVersion) throws IOException {
+        return writeArray(smileWriter, out, onVersion);
+    }
+
+    /**
+     * Write all books as newline-delimited JSON, one book per line.
+     *
+     * @param out       target stream (not closed by this method)
+     * @param onVersion receives the catalog version the books are read at
+     * @return number of books written
+     */
+    public long writeNdjson(OutputStream out, Consumer<ResourceVersion> onVersion) throws IOException {
+        try (JsonGenerator generator = createGenerator(jsonWriter, out)) {
+            generator.setRootValueSeparator(null);
+            return bookService.streamAllBooks(onVersion, book -> {
+                write(jsonWriter, generator, book);
+                try {
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private long writeArray(ObjectWriter bookWriter, OutputStream out, Consumer<ResourceVersion> onVersion)
+            throws IOException {
+        try (JsonGenerator generator = createGenerator(bookWriter, out)) {
+            // The start of the array is buffered by the generator until the first book
+            generator.writeStartArray();
+            long count = bookService.streamAllBooks(onVersion, book -> write(bookWriter, generator, book));
+            generator.writeEndArray();
+            return count;
+        }
+    }
+
+    private static ObjectWriter bookWriter(ObjectMapper mapper) {
+        return mapper.writerFor(BookResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    private static JsonGenerator createGenerator(ObjectWriter bookWriter, OutputStream out) throws IOException {
+        JsonGenerator generator = bookWriter.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return generator;
+    }
+
+    private static void write(ObjectWriter bookWriter, JsonGenerator generator, BookResponse book) {
+        try {
+            bookWriter.writeValue(generator, book);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.library.library_backend.service;
+
+import com.library.library_backend.dto.BookEvent;
+import com.library.library_backend.entity.BookEventType;
+import com.library.library_backend.entity.UuidV7;
+import com.library.library_backend.repository.BookRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter of existing bookIds, so lookups of unknown ids are answered
+ * with 404 without a database round trip.
+ *
+ * <p>The filter is loaded once the application is ready and then kept up to
+ * date from inserts on this instance and by the {@link BookEventFollower},
+ * which also covers imports and other instances. Deleted books stay in the
+ * filter and are found missing by the database as before.
+ *
+ * <p>A version 7 bookId carries its creation time, so the filter only decides
+ * for ids created more than {@code library.bookid-filter.grace-period} before
+ * the last successful sync; newer ids, and every id while the filter is not
+ * loaded or syncing fails, go to the database. The grace period must cover the
+ * longest write transaction and clock skew between instances.
+ *
+ * <p>{@code library.bookid-filter.rejected} counts lookups answered by the
+ * filter, {@code library.bookid-filter.false-positives} lookups it let through
+ * that found no book; their ratio to all lookups of missing ids is the observed
+ * false-positive rate.
+ */
+@Service
+public class BookIdFilter implements BookEventConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookIdFilter.class);
+
+    private final BookRepository repository;
+    private final BookEventService eventService;
+    private final boolean enabled;
+    private final long expectedBooks;
+    private final Duration gracePeriod;
+    private final UuidBloomFilter filter;
+    private final Counter rejected;
+    private final Counter falsePositives;
+
+    /**
+     * Ids created before this time (Unix millis) are decided by the filter;
+     * ids without a timestamp (-1) once it is loaded
+     */
+    private volatile long authoritativeBefore = Long.MIN_VALUE;
+
+    public BookIdFilter(
+            BookRepository repository,
+            BookEventService eventService,
+            MeterRegistry meterRegistry,
+            @Value("${library.bookid-filter.enabled:true}") boolean enabled,
+            @Value("${library.bookid-filter.expected-books:1000000}") long expectedBooks,
+            @Value("${library.bookid-filter.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${library.bookid-filter.grace-period:1m}") Duration gracePeriod
+    ) {
+        this.repository = repository;
+        this.eventService = eventService;
+        this.enabled = enabled;
+        this.expectedBooks = expectedBooks;
+        this.gracePeriod = gracePeriod;
+        this.filter = enabled ? new UuidBloomFilter(expectedBooks, falsePositiveRate) : null;
+
+        this.rejected = Counter.builder("library.bookid-filter.rejected")
+                .description("Lookups of unknown bookIds answered without a query")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("library.bookid-filter.false-positives")
+                .description("Lookups let through by the bookId filter that found no book")
+                .register(meterRegistry);
+        if (enabled) {
+            Gauge.builder("library.bookid-filter.expected-fpp", filter, UuidBloomFilter::expectedFalsePositiveRate)
+                    .description("False-positive rate expected at the current fill of the bookId filter")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * @return false if no book has the given id, true if one may have it
+     */
+    public boolean mightExist(UUID bookId) {
+        if (UuidV7.timestamp(bookId) >= authoritativeBefore || filter.mightContain(bookId)) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    /**
+     * Report that an id let through by {@link #mightExist} belongs to no book.
+     */
+    public void recordMissing(UUID bookId) {
+        if (UuidV7.timestamp(bookId) < authoritativeBefore) {
+            falsePositives.increment();
+        }
+    }
+
+    /**
+     * Add the id of a book inserted on this instance.
+     */
+    public void add(UUID bookId) {
+        if (enabled) {
+            filter.add(bookId);
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Load the ids of all books, from the primary like
+     * {@link CatalogSnapshot#load()}: an id missing on a lagging replica would
+     * be answered with 404 once the filter decides for its creation time.
+     */
+    @Override
+    @Transactional
+    public long load() {
+        long startedAt = System.currentTimeMillis();
+        long position = eventService.getLatestSequence();
+        long count = 0;
+        try (Stream<UUID> bookIds = repository.streamAllBookIds()) {
+            for (Iterator<UUID> it = bookIds.iterator(); it.hasNext(); count++) {
+                filter.add(it.next());
+            }
+        }
+
+        logger.info("[BOOKID-FILTER] Loaded {} bookIds into {} bits, {} hashes, in {} ms",
+                count, filter.bitCount(), filter.hashCount(), System.currentTimeMillis() - startedAt);
+        if (count > expectedBooks) {
+            logger.warn("[BOOKID-FILTER] {} books exceed library.bookid-filter.expected-books={}, "
+                    + "the false-positive rate will be higher than configured", count, expectedBooks);
+        }
+        return position;
+    }
+
+    /**
+     * Add books created by imports and on other instances.
+     */
+    @Override
+    public void apply(List<BookEvent> events) {
+        for (BookEvent event : events) {
+            if (BookEventType.CREATED.name().equals(event.getType())) {
+                filter.add(UUID.fromString(event.getBookId()));
+            }
+        }
+    }
+
+    /**
+     * The filter's authority only advances when the follower caught up.
+     */
+    @Override
+    public void caughtUp(long position, long startedAt) {
+        authoritativeBefore = startedAt - gracePeriod.toMillis();
+    }
+}
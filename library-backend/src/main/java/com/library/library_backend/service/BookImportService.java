@@ -0,0 +1,233 @@
+package com.library.library_backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.library_backend.dto.BookImportError;
+import com.library.library_backend.dto.BookImportResult;
+import com.library.library_backend.dto.BookRequest;
+import com.library.library_backend.dto.BookResponse;
+import com.library.library_backend.entity.BookEventType;
+import com.library.library_backend.entity.UuidV7;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk ingestion of books.
+ *
+ * <p>The upload is parsed as a stream (a JSON array or newline-delimited JSON),
+ * so the document is never held in memory as a whole. Every row is validated
+ * with the same constraints as {@code POST /api/books}; valid rows are inserted
+ * with JDBC batch statements, one transaction per batch.
+ *
+ * <p>Inserts bypass JPA on purpose: {@code BaseEntity} uses identity columns,
+ * which prevents Hibernate from batching inserts. For the same reason the
+ * change feed events of a batch are written here, in the batch transaction,
+ * right after the books.
+ */
+@Service
+public class BookImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookImportService.class);
+
+    /** Maximum number of rejected rows listed in the import summary */
+    static final int MAX_REPORTED_ERRORS = 100;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO books (book_id, title, author, isbn, published_year, available, created_at, modified_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_EVENT_SQL = """
+            INSERT INTO book_events (type, book_id, payload, created_at, modified_at)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final BookEventService eventService;
+    private final BookIdFilter bookIdFilter;
+    private final int batchSize;
+
+    public BookImportService(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            Validator validator,
+            BookEventService eventService,
+            BookIdFilter bookIdFilter,
+            @Value("${library.import.batch-size:1000}") int batchSize
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.eventService = eventService;
+        this.bookIdFilter = bookIdFilter;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Import books from a JSON array or NDJSON stream.
+     *
+     * <p>Invalid rows are skipped and reported. Batches that were already
+     * committed are kept if a later row turns out to be malformed.
+     *
+     * @param in request body
+     * @return per-row error summary and throughput
+     */
+    public BookImportResult importBooks(InputStream in) throws IOException {
+        long started = System.nanoTime();
+        ImportSummary summary = new ImportSummary();
+        List<PendingRow> batch = new ArrayList<>(batchSize);
+
+        try (MappingIterator<BookRequest> rows = objectMapper.readerFor(BookRequest.class).readValues(in)) {
+            long rowNumber = 0;
+            while (true) {
+                BookRequest request;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    request = rows.nextValue();
+                } catch (JsonProcessingException e) {
+                    // Counted as received so that imported + failed adds up
+                    summary.received++;
+                    summary.reject(rowNumber + 1, "Malformed input: " + e.getOriginalMessage());
+                    break;
+                }
+                rowNumber++;
+                summary.received++;
+
+                Set<ConstraintViolation<BookRequest>> violations = validator.validate(request);
+                if (!violations.isEmpty()) {
+                    summary.reject(rowNumber, violations.stream()
+                            .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                            .sorted()
+                            .collect(Collectors.joining("; ")));
+                    continue;
+                }
+
+                batch.add(new PendingRow(rowNumber, UuidV7.generate(), request));
+                if (batch.size() >= batchSize) {
+                    flush(batch, summary);
+                }
+            }
+        }
+        flush(batch, summary);
+
+        long elapsedNanos = System.nanoTime() - started;
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        double rowsPerSecond = seconds > 0 ? summary.imported / seconds : 0;
+        logger.info("[IMPORT] received={} imported={} failed={} rows/s={}",
+                summary.received, summary.imported, summary.failed, Math.round(rowsPerSecond));
+
+        return new BookImportResult(
+                summary.received,
+                summary.imported,
+                summary.failed,
+                summary.errors,
+                elapsedNanos / 1_000_000,
+                rowsPerSecond
+        );
+    }
+
+    private void flush(List<PendingRow> batch, ImportSummary summary) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            insert(batch);
+            summary.imported += batch.size();
+        } catch (DataAccessException batchFailure) {
+            // Retry row by row so a single bad row does not reject the whole batch
+            for (PendingRow row : batch) {
+                try {
+                    insert(List.of(row));
+                    summary.imported++;
+                } catch (DataAccessException rowFailure) {
+                    summary.reject(row.rowNumber(), "Rejected by database: " + rowFailure.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+        batch.clear();
+    }
+
+    private void insert(List<PendingRow> rows) {
+        Timestamp now = Timestamp.from(Instant.now());
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, row) -> bind(ps, row, now));
+            jdbcTemplate.batchUpdate(INSERT_EVENT_SQL, rows, rows.size(), (ps, row) -> bindEvent(ps, row, now));
+            eventService.notifyAfterCommit();
+        });
+        rows.forEach(row -> bookIdFilter.add(row.bookId()));
+    }
+
+    private static void bind(PreparedStatement ps, PendingRow row, Timestamp now) throws SQLException {
+        BookRequest request = row.request();
+        ps.setObject(1, row.bookId());
+        ps.setString(2, request.getTitle());
+        ps.setString(3, request.getAuthor());
+        ps.setString(4, request.getIsbn());
+        ps.setObject(5, request.getPublishedYear(), Types.INTEGER);
+        ps.setObject(6, request.getAvailable(), Types.BOOLEAN);
+        ps.setTimestamp(7, now);
+        ps.setTimestamp(8, now);
+    }
+
+    private void bindEvent(PreparedStatement ps, PendingRow row, Timestamp now) throws SQLException {
+        BookRequest request = row.request();
+        BookResponse book = new BookResponse(
+                row.bookId(),
+                request.getTitle(),
+                request.getAuthor(),
+                request.getIsbn(),
+                request.getPublishedYear(),
+                request.getAvailable()
+        );
+        ps.setString(1, BookEventType.CREATED.name());
+        ps.setObject(2, row.bookId());
+        ps.setObject(3, eventService.toJson(book), Types.OTHER);
+        ps.setTimestamp(4, now);
+        ps.setTimestamp(5, now);
+    }
+
+    private record PendingRow(long rowNumber, UUID bookId, BookRequest request) {
+    }
+
+    private static final class ImportSummary {
+        private long received;
+        private long imported;
+        private long failed;
+        private final List<BookImportError> errors = new ArrayList<>();
+
+        void reject(long rowNumber, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new BookImportError(rowNumber, message));
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.library.library_backend.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Application-specific metrics for the Book domain.
+ *
+ * <p>{@code library.books.result.size} records how many books each read
+ * operation returned, tagged by operation.
+ */
+@Component
+public class BookMetrics {
+
+    private final MeterRegistry registry;
+    private final Map<String, DistributionSummary> resultSizes = new ConcurrentHashMap<>();
+
+    public BookMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * @param operation name of the read operation, e.g. {@code getAllBooks}
+     * @param size      number of books returned
+     */
+    public void recordResultSize(String operation, long size) {
+        resultSizes.computeIfAbsent(operation, this::resultSizeSummary).record(size);
+    }
+
+    private DistributionSummary resultSizeSummary(String operation) {
+        return DistributionSummary.builder("library.books.result.size")
+                .description("Number of books returned per read operation")
+                .baseUnit("books")
+                .tag("operation", operation)
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(10_000_000.0)
+                .register(registry);
+    }
+}
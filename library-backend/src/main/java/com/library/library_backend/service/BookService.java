@@ -1,18 +1,57 @@
 package com.library.library_backend.service;
 
+import com.library.library_backend.config.CacheConfig;
+import com.library.library_backend.dto.BookBatchResponse;
+import com.library.library_backend.dto.BookCreateResult;
+import com.library.library_backend.dto.BookCursorPage;
+import com.library.library_backend.dto.BookFilter;
 import com.library.library_backend.dto.BookRequest;
 import com.library.library_backend.dto.BookResponse;
+import com.library.library_backend.dto.BookStats;
+import com.library.library_backend.dto.ResourceVersion;
+import com.library.library_backend.dto.Versioned;
 import com.library.library_backend.entity.BookEntity;
+import com.library.library_backend.entity.BookEventType;
+import com.library.library_backend.entity.UuidV7;
+import com.library.library_backend.exception.BadRequestException;
+import com.library.library_backend.exception.ConflictException;
 import com.library.library_backend.exception.NotFoundException;
 import com.library.library_backend.mapper.BookMapper;
 import com.library.library_backend.repository.BookRepository;
+import com.library.library_backend.repository.BookRepository.KeyedResponse;
+import com.library.library_backend.repository.BookSpecifications;
+import com.library.library_backend.repository.BookStatsRepository;
+import com.library.library_backend.repository.CatalogVersionRepository;
 
-import jakarta.transaction.Transactional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Service layer for the Book domain.
@@ -26,12 +65,75 @@ import java.util.List;
 @Service
 public class BookService {
 
+    /** Upper bound for the page size of cursor-based pagination */
+    public static final int MAX_CURSOR_PAGE_SIZE = 100;
+
+    /** Upper bound for the page size of search results */
+    public static final int MAX_SEARCH_PAGE_SIZE = 100;
+
+    /** Upper bound for the page size of filtered queries */
+    public static final int MAX_FILTER_PAGE_SIZE = 100;
+
+    /** Upper bound for the number of authors in catalog statistics */
+    public static final int MAX_STATS_TOP_AUTHORS = 100;
+
+    /** API sort keys of filtered queries and the entity attributes they map to */
+    private static final Map<String, String> FILTER_SORT_FIELDS = Map.of(
+            "title", "title",
+            "author", "author",
+            "publishedYear", "publishedYear",
+            "createdAt", "id"
+    );
+
+    /** Thrown for every unknown bookId; preallocated, without stack trace */
+    private static final NotFoundException BOOK_NOT_FOUND = NotFoundException.stackless("Book not found");
+
     private final BookRepository repository;
+    private final CatalogVersionRepository catalogVersionRepository;
+    private final BookStatsRepository statsRepository;
+    private final BookEventService eventService;
+    private final IdempotencyKeyService idempotencyKeys;
+    private final BookIdFilter bookIdFilter;
     private final BookMapper mapper;
+    private final int searchMaxResults;
+    private final int batchMaxIds;
+    private final boolean isbnUpsert;
 
-    public BookService(BookRepository repository, BookMapper mapper) {
+    public BookService(
+            BookRepository repository,
+            CatalogVersionRepository catalogVersionRepository,
+            BookStatsRepository statsRepository,
+            BookEventService eventService,
+            IdempotencyKeyService idempotencyKeys,
+            BookIdFilter bookIdFilter,
+            BookMapper mapper,
+            @Value("${library.search.max-results:200}") int searchMaxResults,
+            @Value("${library.batch.max-ids:100}") int batchMaxIds,
+            @Value("${library.books.isbn-upsert:false}") boolean isbnUpsert
+    ) {
         this.repository = repository;
+        this.catalogVersionRepository = catalogVersionRepository;
+        this.statsRepository = statsRepository;
+        this.eventService = eventService;
+        this.idempotencyKeys = idempotencyKeys;
+        this.bookIdFilter = bookIdFilter;
         this.mapper = mapper;
+        this.searchMaxResults = searchMaxResults;
+        this.batchMaxIds = batchMaxIds;
+        this.isbnUpsert = isbnUpsert;
+    }
+
+    /**
+     * ISBN upserts need the unique index that V8 only creates for a catalog
+     * without duplicate ISBNs; refuse to start rather than fail every create.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyIsbnUpsert() {
+        if (isbnUpsert && !repository.hasUniqueIsbnIndex()) {
+            throw new IllegalStateException(
+                    "library.books.isbn-upsert requires the unique index ux_books_isbn; "
+                            + "remove duplicate ISBNs and create it, or disable the setting");
+        }
     }
 
     // ===========================
@@ -43,66 +145,328 @@ public class BookService {
      *
      * @return list of all books as DTOs
      */
+    @Transactional(readOnly = true)
     public List<BookResponse> getAllBooks() {
-        return repository.findAll()
-                .stream()
-                .map(mapper::toResponse)
-                .toList();
+        return repository.findAllResponses();
     }
 
     /**
-     * Get a page of books (pagination support).
+     * Stream every book in the library to the given consumer, one at a time.
+     *
+     * <p>Rows are read through a forward-only cursor with a bounded fetch size
+     * and selected straight into DTOs, so no entities are kept in the persistence
+     * context and heap use does not grow with the size of the catalog.
+     *
+     * <p>Books come in bookId order, read along its unique index, which is also
+     * the order of the {@link CatalogSnapshot}.
+     *
+     * @param consumer receives each book as a DTO, in bookId order
+     * @return number of books streamed
+     */
+    @Transactional(readOnly = true)
+    public long streamAllBooks(Consumer<BookResponse> consumer) {
+        long count = 0;
+        try (Stream<BookResponse> books = repository.streamAllResponses()) {
+            for (BookResponse book : (Iterable<BookResponse>) books::iterator) {
+                consumer.accept(book);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Stream every book like {@link #streamAllBooks(Consumer)}, together with
+     * the catalog version the books are read at.
+     *
+     * <p>Both are read in one REPEATABLE READ transaction, i.e. from one
+     * snapshot of one database: read-only transactions are spread over the
+     * replicas, and a version read in a transaction of its own may come from
+     * a replica ahead of the one the books come from.
+     *
+     * @param onVersion receives the catalog version, before the first book
+     * @param consumer  receives each book as a DTO, in bookId order
+     * @return number of books streamed
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public long streamAllBooks(Consumer<ResourceVersion> onVersion, Consumer<BookResponse> consumer) {
+        onVersion.accept(catalogVersionRepository.findBooksVersion());
+        return streamAllBooks(consumer);
+    }
+
+    /**
+     * Get a page of books (pagination support), with the catalog version it
+     * was read at.
+     *
+     * <p>The total is read from the catalog statistics instead of counting books.
+     * The version, the page and the total are read in one REPEATABLE READ
+     * transaction, as in {@link #streamAllBooks(Consumer, Consumer)}.
      *
      * @param pageable page request object (page number, size, sort)
-     * @return page of books as DTOs
+     * @return page of books as DTOs and the catalog version it was read at
      */
-    public Page<BookResponse> getBooksPage(Pageable pageable) {
-        return repository.findAll(pageable)
-                .map(mapper::toResponse);
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public Versioned<Page<BookResponse>> getBooksPage(Pageable pageable) {
+        ResourceVersion version = catalogVersionRepository.findBooksVersion();
+        Page<BookResponse> page = PageableExecutionUtils.getPage(
+                repository.findResponses(pageable),
+                pageable,
+                statsRepository::countBooks
+        );
+        return new Versioned<>(version, page);
+    }
+
+    /**
+     * Get a page of books using keyset (seek) pagination.
+     *
+     * <p>Unlike {@link #getBooksPage(Pageable)}, the cost of a page does not depend
+     * on how deep into the catalog it is. The total, when requested, comes from
+     * the catalog statistics.
+     *
+     * @param cursor       continuation token from the previous page, or null for the first page
+     * @param size         number of books per page
+     * @param includeTotal whether to include the number of books
+     * @return page of books with the token for the next page
+     * @throws BadRequestException if the cursor is malformed or size is out of range
+     */
+    @Transactional(readOnly = true)
+    public BookCursorPage getBooksAfter(String cursor, int size, boolean includeTotal) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new BadRequestException("Size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+
+        long afterId = BookCursor.decode(cursor);
+        // One extra row tells whether there is a next page
+        List<KeyedResponse> rows = repository.findResponsesAfter(afterId, Limit.of(size + 1));
+
+        boolean hasNext = rows.size() > size;
+        List<KeyedResponse> books = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext
+                ? BookCursor.encode(books.get(books.size() - 1).id())
+                : null;
+        Long total = includeTotal ? statsRepository.countBooks() : null;
+
+        return new BookCursorPage(
+                books.stream().map(KeyedResponse::book).toList(),
+                nextCursor,
+                hasNext,
+                total
+        );
     }
 
     /**
-     * Search books by title or author (case-insensitive).
+     * Search books by title or author (case-insensitive substring match).
+     *
+     * <p>Results are ranked by similarity to the query and paginated. Only the
+     * first {@code library.search.max-results} matches can be paged through;
+     * pages beyond that cap are empty.
      *
      * @param query search query
-     * @return list of matching books as DTOs
+     * @param page  zero-based page number
+     * @param size  number of results per page
+     * @return list of matching books as DTOs, best match first
+     * @throws BadRequestException if the query is blank or paging is out of range
      */
-    public List<BookResponse> searchBooks(String query) {
-        return repository
-                .findByTitleContainingIgnoreCaseOrAuthorContainingIgnoreCase(query, query)
+    @Transactional(readOnly = true)
+    public List<BookResponse> searchBooks(String query, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Query must not be empty");
+        }
+        if (page < 0 || size < 1 || size > MAX_SEARCH_PAGE_SIZE) {
+            throw new BadRequestException(
+                    "Page must not be negative and size must be between 1 and " + MAX_SEARCH_PAGE_SIZE);
+        }
+
+        long offset = (long) page * size;
+        if (offset >= searchMaxResults) {
+            return List.of();
+        }
+        int limit = (int) Math.min(size, searchMaxResults - offset);
+
+        String trimmed = query.trim();
+        return repository.search(trimmed, "%" + escapeLike(trimmed) + "%", limit, (int) offset)
                 .stream()
                 .map(mapper::toResponse)
                 .toList();
     }
 
     /**
-     * Get a single book by its unique ID.
+     * Get a page of books matching the given filter.
+     *
+     * <p>Results are ordered by the requested field, ties broken by insertion
+     * order, so pages are stable.
+     *
+     * @param filter    optional author, published year range and availability
+     * @param page      zero-based page number
+     * @param size      number of results per page
+     * @param sort      one of title, author, publishedYear, createdAt
+     * @param direction asc or desc
+     * @return page of matching books as DTOs
+     * @throws BadRequestException if the filter, paging or sort is invalid
+     */
+    @Transactional(readOnly = true)
+    public Page<BookResponse> filterBooks(BookFilter filter, int page, int size, String sort, String direction) {
+        if (page < 0 || size < 1 || size > MAX_FILTER_PAGE_SIZE) {
+            throw new BadRequestException(
+                    "Page must not be negative and size must be between 1 and " + MAX_FILTER_PAGE_SIZE);
+        }
+        String sortField = FILTER_SORT_FIELDS.get(sort);
+        if (sortField == null) {
+            throw new BadRequestException("Sort must be one of " + FILTER_SORT_FIELDS.keySet());
+        }
+        Sort.Direction sortDirection = Sort.Direction.fromOptionalString(direction)
+                .orElseThrow(() -> new BadRequestException("Direction must be asc or desc"));
+        if (filter.getYearFrom() != null && filter.getYearTo() != null && filter.getYearFrom() > filter.getYearTo()) {
+            throw new BadRequestException("yearFrom must not be after yearTo");
+        }
+
+        Sort order = Sort.by(sortDirection, sortField);
+        if (!sortField.equals("id")) {
+            order = order.and(Sort.by(sortDirection, "id"));
+        }
+        return repository.findAll(toSpecification(filter), PageRequest.of(page, size, order))
+                .map(mapper::toResponse);
+    }
+
+    /**
+     * Get a single book by its unique ID, with its version.
+     *
+     * <p>The book and its version are read in one REPEATABLE READ transaction
+     * and cached together per bookId, so a response is always tagged with the
+     * version of the book it carries; cached separately, the two could expire
+     * or be refilled one without the other. Write operations evict the entry
+     * once their transaction commits, and {@link BookCacheInvalidator} evicts
+     * books changed on other instances. The cache is filled from the primary:
+     * a lagging replica could put back a book that was just changed or
+     * deleted, for as long as the entry lives.
      *
      * @param bookId book's unique identifier
-     * @return book as DTO
+     * @return book as DTO and its version
      * @throws NotFoundException if book does not exist
      */
-    public BookResponse getBook(String bookId) {
-        BookEntity entity = repository.findByBookId(bookId)
-                .orElseThrow(() -> new NotFoundException("Book not found"));
-        return mapper.toResponse(entity);
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    @Cacheable(cacheNames = CacheConfig.BOOKS_CACHE, key = "#bookId")
+    public Versioned<BookResponse> getBook(String bookId) {
+        UUID id = parseBookId(bookId);
+        ResourceVersion version = repository.findVersionByBookId(id)
+                .orElseThrow(() -> bookNotFound(id));
+        BookResponse book = repository.findResponseByBookId(id)
+                .orElseThrow(() -> bookNotFound(id));
+        return new Versioned<>(version, book);
+    }
+
+    /**
+     * Get several books by their unique IDs with a single query.
+     *
+     * <p>Duplicate ids are collapsed. Found books keep the order in which their
+     * ids were requested; unknown or malformed ids are reported as missing
+     * rather than failing the whole lookup.
+     *
+     * @param bookIds requested ids, at most {@code library.batch.max-ids}
+     * @return found books and missing ids
+     * @throws BadRequestException if no ids or too many ids are requested
+     */
+    @Transactional(readOnly = true)
+    public BookBatchResponse getBooks(List<String> bookIds) {
+        Set<String> requested = new LinkedHashSet<>(bookIds == null ? List.of() : bookIds);
+        if (requested.isEmpty() || requested.size() > batchMaxIds) {
+            throw new BadRequestException("Between 1 and " + batchMaxIds + " bookIds must be requested");
+        }
+
+        Set<UUID> lookup = new LinkedHashSet<>();
+        for (String bookId : requested) {
+            UuidV7.parse(bookId).filter(bookIdFilter::mightExist).ifPresent(lookup::add);
+        }
+
+        Map<String, BookResponse> found = new HashMap<>();
+        if (!lookup.isEmpty()) {
+            for (BookResponse book : repository.findResponsesByBookIdIn(lookup)) {
+                found.put(book.getBookId(), book);
+            }
+        }
+
+        List<BookResponse> content = new ArrayList<>(found.size());
+        List<String> missing = new ArrayList<>();
+        for (String bookId : requested) {
+            BookResponse book = found.get(bookId);
+            if (book != null) {
+                content.add(book);
+            } else {
+                missing.add(bookId);
+            }
+        }
+        return new BookBatchResponse(content, missing);
+    }
+
+    /**
+     * Get the version of the whole catalog, which changes whenever any book
+     * is added, updated or deleted.
+     *
+     * @return catalog version and last modification time
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getCatalogVersion() {
+        return catalogVersionRepository.findBooksVersion();
+    }
+
+    /**
+     * Get catalog statistics: totals, books per availability, the authors with
+     * the most books and books per published year.
+     *
+     * <p>Read from aggregates that every write to books keeps up to date in the
+     * same transaction, so the cost does not grow with the catalog.
+     *
+     * @param topAuthors number of authors to include
+     * @return catalog statistics
+     * @throws BadRequestException if topAuthors is out of range
+     */
+    @Transactional(readOnly = true)
+    public BookStats getStats(int topAuthors) {
+        if (topAuthors < 1 || topAuthors > MAX_STATS_TOP_AUTHORS) {
+            throw new BadRequestException("Top must be between 1 and " + MAX_STATS_TOP_AUTHORS);
+        }
+        return statsRepository.findStats(topAuthors);
     }
 
     // ===========================
     // WRITE
     // ===========================
+    //
+    // Every write records a change feed event in the same transaction, after
+    // the statement on books (see BookEventService).
 
     /**
      * Add a new book to the library.
      *
-     * @param request book data
-     * @return created book as DTO
+     * <p>With an idempotency key, a retry of a request that already succeeded
+     * returns the book it returned, with the same outcome. With {@code library.books.isbn-upsert}, a
+     * book whose ISBN is already in the catalog is not inserted again and the
+     * existing book is returned. Both checks are single statements; nothing is
+     * inserted and no event is recorded when either one matches.
+     *
+     * @param request        book data
+     * @param idempotencyKey client-supplied Idempotency-Key, or null
+     * @return the created or existing book and which of the two it is
+     * @throws BadRequestException if the idempotency key is malformed
+     * @throws ConflictException   if the idempotency key belongs to a different request
+     * @throws NotFoundException   if the book created with the idempotency key was deleted since
      */
     @Transactional
-    public BookResponse addBook(BookRequest request) {
-        BookEntity entity = mapper.toEntity(request);
-        repository.save(entity);
-        return mapper.toResponse(entity);
+    public BookCreateResult addBook(BookRequest request, String idempotencyKey) {
+        if (idempotencyKey != null) {
+            Optional<IdempotencyKeyService.PreviousResult> previous = idempotencyKeys.claim(idempotencyKey, request);
+            if (previous.isPresent()) {
+                BookResponse book = repository.findResponseByBookId(previous.get().bookId())
+                        .orElseThrow(() -> new NotFoundException("Book created with this Idempotency-Key was deleted"));
+                return new BookCreateResult(book, previous.get().outcome(), true);
+            }
+        }
+
+        BookCreateResult result = insertBook(request);
+        if (idempotencyKey != null) {
+            idempotencyKeys.complete(idempotencyKey, UUID.fromString(result.getBook().getBookId()), result.getOutcome());
+        }
+        return result;
     }
 
     /**
@@ -114,28 +478,70 @@ public class BookService {
      * @throws NotFoundException if book does not exist
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.BOOKS_CACHE, key = "#bookId")
     public BookResponse updateBook(String bookId, BookRequest request) {
-        BookEntity entity = repository.findByBookId(bookId)
-                .orElseThrow(() -> new NotFoundException("Book not found"));
+        UUID id = parseBookId(bookId);
+        BookEntity entity = repository.findByBookId(id)
+                .orElseThrow(() -> bookNotFound(id));
 
+        Long previousVersion = entity.getVersion();
         mapper.updateEntityFromRequest(request, entity);
-        return mapper.toResponse(entity);
+        repository.flush();
+
+        BookResponse response = mapper.toResponse(entity);
+        if (!Objects.equals(previousVersion, entity.getVersion())) {
+            eventService.record(BookEventType.UPDATED, entity.getBookId(), response);
+        }
+        return response;
     }
 
     /**
      * Toggle the availability of a book (e.g., checked out / available).
      *
+     * <p>Runs as a single atomic {@code UPDATE ... RETURNING}, so concurrent
+     * toggles of the same book are never lost.
+     *
      * @param bookId book's unique identifier
      * @return updated book as DTO
      * @throws NotFoundException if book does not exist
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.BOOKS_CACHE, key = "#bookId")
     public BookResponse toggleAvailability(String bookId) {
-        BookEntity entity = repository.findByBookId(bookId)
-                .orElseThrow(() -> new NotFoundException("Book not found"));
+        UUID id = parseBookId(bookId);
+        BookResponse response = repository.toggleAvailability(id, Instant.now())
+                .orElseThrow(() -> bookNotFound(id));
+
+        eventService.record(BookEventType.UPDATED, id, response);
+        return response;
+    }
+
+    /**
+     * Check out a book, but only if it is currently available.
+     *
+     * @param bookId book's unique identifier
+     * @return updated book as DTO
+     * @throws NotFoundException if book does not exist
+     * @throws ConflictException if the book is already checked out
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.BOOKS_CACHE, key = "#bookId")
+    public BookResponse checkOut(String bookId) {
+        return changeAvailability(bookId, false, "Book is already checked out");
+    }
 
-        entity.setAvailable(!entity.getAvailable());
-        return mapper.toResponse(entity);
+    /**
+     * Return a checked-out book, making it available again.
+     *
+     * @param bookId book's unique identifier
+     * @return updated book as DTO
+     * @throws NotFoundException if book does not exist
+     * @throws ConflictException if the book is not checked out
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.BOOKS_CACHE, key = "#bookId")
+    public BookResponse returnBook(String bookId) {
+        return changeAvailability(bookId, true, "Book is not checked out");
     }
 
     /**
@@ -145,10 +551,89 @@ public class BookService {
      * @throws NotFoundException if book does not exist
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.BOOKS_CACHE, key = "#bookId")
     public void deleteBook(String bookId) {
-        BookEntity entity = repository.findByBookId(bookId)
-                .orElseThrow(() -> new NotFoundException("Book not found"));
+        UUID id = parseBookId(bookId);
+        BookEntity entity = repository.findByBookId(id)
+                .orElseThrow(() -> bookNotFound(id));
 
         repository.delete(entity);
+        repository.flush();
+        eventService.record(BookEventType.DELETED, entity.getBookId(), null);
+    }
+
+    private BookCreateResult insertBook(BookRequest request) {
+        BookEntity entity = mapper.toEntity(request);
+        if (isbnUpsert && entity.getIsbn() != null) {
+            if (!repository.insertIfIsbnAbsent(entity, Instant.now())) {
+                BookResponse existing = repository.findResponseByIsbn(entity.getIsbn())
+                        .orElseThrow(() -> new ConflictException("Book with this ISBN was deleted concurrently, please retry"));
+                return new BookCreateResult(existing, BookCreateResult.Outcome.EXISTING);
+            }
+        } else {
+            repository.save(entity);
+        }
+        bookIdFilter.add(entity.getBookId());
+
+        BookResponse response = mapper.toResponse(entity);
+        eventService.record(BookEventType.CREATED, entity.getBookId(), response);
+        return new BookCreateResult(response, BookCreateResult.Outcome.CREATED);
+    }
+
+    private BookResponse changeAvailability(String bookId, boolean available, String conflictMessage) {
+        UUID id = parseBookId(bookId);
+        BookResponse response = repository.updateAvailabilityIfChanged(id, available, Instant.now())
+                .orElseThrow(() -> repository.existsByBookId(id)
+                        ? new ConflictException(conflictMessage)
+                        : bookNotFound(id));
+
+        eventService.record(BookEventType.UPDATED, id, response);
+        return response;
+    }
+
+    private static Specification<BookEntity> toSpecification(BookFilter filter) {
+        List<Specification<BookEntity>> criteria = new ArrayList<>();
+        if (filter.getAuthor() != null && !filter.getAuthor().isBlank()) {
+            criteria.add(BookSpecifications.authorIs(filter.getAuthor().trim()));
+        }
+        if (filter.getYearFrom() != null) {
+            criteria.add(BookSpecifications.publishedFrom(filter.getYearFrom()));
+        }
+        if (filter.getYearTo() != null) {
+            criteria.add(BookSpecifications.publishedUntil(filter.getYearTo()));
+        }
+        if (filter.getAvailable() != null) {
+            criteria.add(BookSpecifications.availableIs(filter.getAvailable()));
+        }
+        return Specification.allOf(criteria);
+    }
+
+    /**
+     * A bookId that is not a canonical UUID, or that the {@link BookIdFilter}
+     * rules out, cannot belong to any book, so it is treated like an unknown id
+     * without querying the database.
+     */
+    private UUID parseBookId(String bookId) {
+        UUID id = UuidV7.parse(bookId).orElseThrow(() -> BOOK_NOT_FOUND);
+        if (!bookIdFilter.mightExist(id)) {
+            throw BOOK_NOT_FOUND;
+        }
+        return id;
+    }
+
+    /**
+     * Not-found for an id that passed {@link #parseBookId}, counted as a
+     * false positive of the bookId filter.
+     */
+    private NotFoundException bookNotFound(UUID bookId) {
+        bookIdFilter.recordMissing(bookId);
+        return BOOK_NOT_FOUND;
+    }
+
+    private static String escapeLike(String value) {
+        return value
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
     }
 }
@@ -0,0 +1,147 @@
+package com.library.library_backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.library.library_backend.dto.BookEvent;
+import com.library.library_backend.dto.BookResponse;
+import com.library.library_backend.dto.BookSuggestion;
+import com.library.library_backend.entity.BookEventType;
+import com.library.library_backend.exception.BadRequestException;
+import com.library.library_backend.exception.NotFoundException;
+import com.library.library_backend.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Autocomplete of book titles and authors from an in-memory {@link SuggestIndex}.
+ *
+ * <p>The index is loaded once the application is ready and then patched by
+ * the {@link BookEventFollower} in the background, like the
+ * {@link CatalogSnapshot}. Suggestions are answered from the last published
+ * index; they never query the database or wait for changes to be applied.
+ */
+@Service
+public class BookSuggestService implements BookEventConsumer {
+
+    /** Upper bound for the number of suggestions per request */
+    public static final int MAX_SUGGEST_LIMIT = 20;
+
+    private static final Logger logger = LoggerFactory.getLogger(BookSuggestService.class);
+
+    private final BookService bookService;
+    private final BookEventService eventService;
+    private final ObjectReader bookReader;
+    private final boolean enabled;
+    private final int maxScan;
+
+    private final SuggestIndex index = new SuggestIndex();
+
+    /** Whether the index changed since the last publish; only touched by the follower */
+    private boolean changed;
+
+    public BookSuggestService(
+            BookService bookService,
+            BookEventService eventService,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${library.suggest.enabled:true}") boolean enabled,
+            @Value("${library.suggest.max-scan:500}") int maxScan
+    ) {
+        this.bookService = bookService;
+        this.eventService = eventService;
+        this.bookReader = objectMapper.readerFor(BookResponse.class);
+        this.enabled = enabled;
+        this.maxScan = maxScan;
+
+        Gauge.builder("library.suggest.books", index, SuggestIndex::size)
+                .description("Books in the autocomplete index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Books with a title or author word starting with the query.
+     *
+     * @param query typed text; case, accents and punctuation are ignored
+     * @param limit maximum number of suggestions
+     * @return suggestions, best first
+     * @throws NotFoundException           if suggestions are disabled
+     * @throws BadRequestException         if the query is blank or the limit out of range
+     * @throws ServiceUnavailableException if the index is not loaded yet
+     */
+    public List<BookSuggestion> suggest(String query, int limit) {
+        if (!enabled) {
+            // The index is never loaded, so retrying would not help
+            throw new NotFoundException("Suggestions are disabled");
+        }
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Query must not be empty");
+        }
+        if (limit < 1 || limit > MAX_SUGGEST_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_SUGGEST_LIMIT);
+        }
+        if (!index.isPublished()) {
+            throw new ServiceUnavailableException("Suggestions are not available yet", 1);
+        }
+        return index.suggest(query, limit, maxScan);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Load all books, from the primary like {@link CatalogSnapshot#load()},
+     * so the position matches the events the follower reads.
+     */
+    @Override
+    @Transactional
+    public long load() {
+        long startedAt = System.nanoTime();
+        long position = eventService.getLatestSequence();
+        bookService.streamAllBooks(this::put);
+        index.publish();
+        logger.info("[SUGGEST] Indexed {} books in {} ms",
+                index.size(), (System.nanoTime() - startedAt) / 1_000_000);
+        return position;
+    }
+
+    @Override
+    public void apply(List<BookEvent> events) {
+        events.forEach(this::apply);
+        changed |= !events.isEmpty();
+    }
+
+    @Override
+    public void caughtUp(long position, long startedAt) {
+        if (changed) {
+            index.publish();
+            changed = false;
+        }
+    }
+
+    private void apply(BookEvent event) {
+        if (BookEventType.DELETED.name().equals(event.getType())) {
+            index.remove(event.getBookId());
+            return;
+        }
+        try {
+            put(bookReader.readValue(event.getBook()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void put(BookResponse book) {
+        index.put(new BookSuggestion(book.getBookId(), book.getTitle(), book.getAuthor()));
+    }
+}
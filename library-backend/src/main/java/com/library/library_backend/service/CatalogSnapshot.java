@@ -0,0 +1,301 @@
+package com.library.library_backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.library.library_backend.dto.BookEvent;
+import com.library.library_backend.dto.BookResponse;
+import com.library.library_backend.entity.BookEventType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * In-memory copy of the catalog as pre-serialized JSON, one chunk per book.
+ *
+ * <p>Built once the application is ready, then patched by the
+ * {@link BookEventFollower} from the change feed outbox, which covers imports
+ * and other instances too. Only changed books are serialized again, so a
+ * full-catalog read is a copy of the chunks to the response, without a query
+ * or any encoding.
+ *
+ * <p>Chunks are grouped into segments of consecutive books. A batch of
+ * changes only rebuilds the segments it touched; the others are shared with
+ * the previously published view, so publishing costs the changed books plus
+ * one reference per segment rather than a copy of the whole catalog.
+ *
+ * <p>Books are kept in bookId order, the order in which
+ * {@link BookService#streamAllBooks} reads them from the database, so both
+ * give the same body for a catalog version. The canonical form of a UUID
+ * sorts like its unsigned value, as in the database.
+ *
+ * <p>Opt-in with {@code library.snapshot.enabled}; the whole catalog is held in
+ * memory, roughly 150 bytes per book.
+ */
+@Service
+public class CatalogSnapshot implements BookEventConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshot.class);
+
+    /** Books per segment when a segment is rebuilt */
+    static final int SEGMENT_SIZE = 256;
+
+    private final BookService bookService;
+    private final BookEventService eventService;
+    private final ObjectWriter bookWriter;
+    private final ObjectReader bookReader;
+    private final boolean enabled;
+
+    /*
+     * Only touched by load and the follower. Segments are keyed by the first
+     * bookId they were built with and hold the books up to the next key;
+     * changed segments are copied into edits until the next publish.
+     */
+    private final TreeMap<String, Segment> segments = new TreeMap<>();
+    private final TreeMap<String, TreeMap<String, byte[]>> edits = new TreeMap<>();
+    private long books;
+    private long bookBytes;
+
+    /** Latest published state, null until built */
+    private volatile View view;
+
+    public CatalogSnapshot(
+            BookService bookService,
+            BookEventService eventService,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${library.snapshot.enabled:false}") boolean enabled
+    ) {
+        this.bookService = bookService;
+        this.eventService = eventService;
+        this.bookWriter = objectMapper.writerFor(BookResponse.class);
+        this.bookReader = objectMapper.readerFor(BookResponse.class);
+        this.enabled = enabled;
+
+        if (enabled) {
+            Gauge.builder("library.snapshot.bytes", this, snapshot -> {
+                        View current = snapshot.view;
+                        return current == null ? 0 : current.bytes();
+                    })
+                    .description("Size of the pre-serialized catalog")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Load the whole catalog.
+     *
+     * <p>Read-write, so the position and the catalog come from the primary,
+     * which the follower reads events from; a lagging replica could hand out
+     * a catalog older than the events after its position.
+     */
+    @Override
+    @Transactional
+    public long load() {
+        long startedAt = System.nanoTime();
+        long position = eventService.getLatestSequence();
+        segments.clear();
+        edits.clear();
+        books = 0;
+        bookBytes = 0;
+        bookService.streamAllBooks(book -> edit(book.getBookId()).put(book.getBookId(), encode(book)));
+        publish(position);
+        logger.info("[SNAPSHOT] Built catalog snapshot of {} books, {} bytes in {} ms",
+                books, view.bytes(), (System.nanoTime() - startedAt) / 1_000_000);
+        return position;
+    }
+
+    @Override
+    public void apply(List<BookEvent> events) {
+        events.forEach(this::apply);
+    }
+
+    @Override
+    public void caughtUp(long position, long startedAt) {
+        if (!edits.isEmpty() || view.position() != position) {
+            publish(position);
+        }
+    }
+
+    /**
+     * The snapshot, if it holds exactly the given catalog version.
+     *
+     * <p>The catalog version is the sequence number of the last event of the
+     * latest commit, so only a snapshot that applied up to that event has the
+     * content the version tags. Right after a commit the snapshot may still
+     * be behind, and callers read the database instead.
+     *
+     * @param version catalog version the response is tagged with
+     * @return published view at that version, or empty
+     */
+    public Optional<View> at(long version) {
+        View current = view;
+        return current != null && current.position() == version ? Optional.of(current) : Optional.empty();
+    }
+
+    private void publish(long position) {
+        Map.Entry<String, TreeMap<String, byte[]>> edit;
+        while ((edit = edits.pollFirstEntry()) != null) {
+            TreeMap<String, byte[]> chunks = edit.getValue();
+            drop(edit.getKey());
+            // Keep deletes from leaving many small segments behind
+            String next = segments.higherKey(edit.getKey());
+            if (chunks.size() < SEGMENT_SIZE / 2 && next != null) {
+                TreeMap<String, byte[]> nextChunks = edits.remove(next);
+                chunks.putAll(nextChunks != null ? nextChunks : segments.get(next).toMap());
+                drop(next);
+            }
+            while (!chunks.isEmpty()) {
+                Segment segment = Segment.of(chunks, SEGMENT_SIZE);
+                segments.put(segment.bookIds()[0], segment);
+                books += segment.bookIds().length;
+                bookBytes += segment.bytes();
+            }
+        }
+        long bytes = 2 + Math.max(books - 1, 0) + bookBytes;
+        view = new View(segments.values().toArray(new Segment[0]), books, bytes, position);
+    }
+
+    private void drop(String key) {
+        Segment segment = segments.remove(key);
+        if (segment != null) {
+            books -= segment.bookIds().length;
+            bookBytes -= segment.bytes();
+        }
+    }
+
+    /**
+     * Editable copy of the segment a book belongs to; a book before every
+     * segment belongs to the first one, and to a new one while there is none.
+     */
+    private TreeMap<String, byte[]> edit(String bookId) {
+        String key = segments.floorKey(bookId);
+        if (key == null) {
+            key = segments.isEmpty() ? "" : segments.firstKey();
+        }
+        return edits.computeIfAbsent(key, k -> {
+            Segment segment = segments.get(k);
+            return segment == null ? new TreeMap<>() : segment.toMap();
+        });
+    }
+
+    private void apply(BookEvent event) {
+        if (BookEventType.DELETED.name().equals(event.getType())) {
+            edit(event.getBookId()).remove(event.getBookId());
+            return;
+        }
+        try {
+            // Re-encode instead of copying the payload: jsonb does not keep the key order
+            byte[] chunk = encode(bookReader.readValue(event.getBook()));
+            edit(event.getBookId()).put(event.getBookId(), chunk);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte[] encode(BookResponse book) {
+        try {
+            return bookWriter.writeValueAsBytes(book);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Consecutive books in bookId order; never changed once built.
+     */
+    private record Segment(String[] bookIds, byte[][] chunks, long bytes) {
+
+        /** Takes up to {@code size} of the first chunks out of the map */
+        static Segment of(TreeMap<String, byte[]> chunks, int size) {
+            int length = Math.min(chunks.size(), size);
+            String[] bookIds = new String[length];
+            byte[][] values = new byte[length][];
+            long bytes = 0;
+            for (int i = 0; i < length; i++) {
+                Map.Entry<String, byte[]> entry = chunks.pollFirstEntry();
+                bookIds[i] = entry.getKey();
+                values[i] = entry.getValue();
+                bytes += values[i].length;
+            }
+            return new Segment(bookIds, values, bytes);
+        }
+
+        TreeMap<String, byte[]> toMap() {
+            TreeMap<String, byte[]> map = new TreeMap<>();
+            for (int i = 0; i < bookIds.length; i++) {
+                map.put(bookIds[i], chunks[i]);
+            }
+            return map;
+        }
+    }
+
+    /**
+     * Immutable published state; readers never see a half-applied batch.
+     */
+    public static final class View {
+
+        private final Segment[] segments;
+        private final long books;
+        private final long bytes;
+        private final long position;
+
+        private View(Segment[] segments, long books, long bytes, long position) {
+            this.segments = segments;
+            this.books = books;
+            this.bytes = bytes;
+            this.position = position;
+        }
+
+        /**
+         * @return sequence number of the last event applied
+         */
+        public long position() {
+            return position;
+        }
+
+        long bytes() {
+            return bytes;
+        }
+
+        /**
+         * Write all books as a single JSON array.
+         *
+         * @param out target stream (not closed by this method)
+         * @return number of books written
+         */
+        public long writeJsonArray(OutputStream out) throws IOException {
+            out.write('[');
+            boolean first = true;
+            for (Segment segment : segments) {
+                for (byte[] chunk : segment.chunks()) {
+                    if (!first) {
+                        out.write(',');
+                    }
+                    out.write(chunk);
+                    first = false;
+                }
+            }
+            out.write(']');
+            return books;
+        }
+    }
+}
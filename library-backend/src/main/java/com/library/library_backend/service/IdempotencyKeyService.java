@@ -0,0 +1,134 @@
+package com.library.library_backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.library_backend.dto.BookCreateResult;
+import com.library.library_backend.dto.BookRequest;
+import com.library.library_backend.exception.BadRequestException;
+import com.library.library_backend.exception.ConflictException;
+import com.library.library_backend.repository.IdempotencyKeyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Idempotency-Key handling for book creation.
+ *
+ * <p>A client that retries a creation with the same key gets the book created
+ * by the first attempt instead of a duplicate, with the same outcome. Keys are remembered for
+ * {@code library.idempotency.ttl} together with a hash of the request, so a key
+ * cannot be reused for a different book within that time.
+ */
+@Service
+public class IdempotencyKeyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyKeyService.class);
+
+    /** Length of the key column */
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyKeyRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+
+    public IdempotencyKeyService(
+            IdempotencyKeyRepository repository,
+            ObjectMapper objectMapper,
+            @Value("${library.idempotency.ttl:24h}") Duration ttl
+    ) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Claim a key for the current transaction.
+     *
+     * @param key     client-supplied Idempotency-Key
+     * @param request request sent with the key
+     * @return empty if the current transaction now owns the key and must
+     *         {@link #complete complete} it, otherwise the result of the
+     *         earlier request with this key
+     * @throws BadRequestException if the key is blank or too long
+     * @throws ConflictException   if the key was used for a different request
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<PreviousResult> claim(String key, BookRequest request) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must have 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String requestHash = hash(request);
+        Instant now = Instant.now();
+        if (repository.claim(key, requestHash, now, now.plus(ttl))) {
+            return Optional.empty();
+        }
+
+        IdempotencyKeyRepository.StoredKey stored = repository.find(key)
+                .filter(existing -> existing.bookId() != null)
+                .orElseThrow(() -> new ConflictException("A request with this Idempotency-Key is in progress"));
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new ConflictException("Idempotency-Key was already used for a different request");
+        }
+        // Keys completed before outcomes were stored always created their book
+        BookCreateResult.Outcome outcome = stored.outcome() != null
+                ? stored.outcome()
+                : BookCreateResult.Outcome.CREATED;
+        return Optional.of(new PreviousResult(stored.bookId(), outcome));
+    }
+
+    /**
+     * Record the book a claimed key resulted in, and whether it was created.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void complete(String key, UUID bookId, BookCreateResult.Outcome outcome) {
+        repository.complete(key, bookId, outcome);
+    }
+
+    /**
+     * SHA-256 of the request as JSON. Field order is fixed by the DTO, so equal
+     * requests hash equally.
+     */
+    String hash(BookRequest request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not hash request", e);
+        }
+    }
+
+    /**
+     * Delete keys older than {@code library.idempotency.ttl}.
+     */
+    @Scheduled(
+            fixedDelayString = "${library.idempotency.purge-interval:PT1H}",
+            initialDelayString = "${library.idempotency.purge-interval:PT1H}"
+    )
+    @Transactional
+    public void purgeExpired() {
+        int deleted = repository.deleteExpired(Instant.now());
+        if (deleted > 0) {
+            logger.info("[IDEMPOTENCY] Purged {} expired keys", deleted);
+        }
+    }
+
+    /**
+     * @param bookId  book the earlier request returned
+     * @param outcome whether it created that book or found it by ISBN
+     */
+    public record PreviousResult(UUID bookId, BookCreateResult.Outcome outcome) {
+    }
+}
@@ -0,0 +1,344 @@
+package com.library.library_backend.service;
+
+import com.library.library_backend.dto.BookSuggestion;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prefix index over the words of book titles and authors.
+ *
+ * <p>Titles and authors are normalized (lowercase, accents and punctuation
+ * removed). Every word start in them is one {@code long} in a sorted array,
+ * packing the book slot, field and offset; the array is ordered by the text
+ * from that offset on. A prefix query is two binary searches over that array
+ * without allocating, so any word of a title or author can be completed.
+ *
+ * <p>Changes are collected by a single writer and published as a new
+ * immutable {@link View}: changed books are removed from the sorted array and
+ * their new entries merged in, so a batch of changes costs one pass over the
+ * array. Readers never lock and always see a consistent view.
+ *
+ * <p>Not thread-safe for writers; {@link #suggest} may be called concurrently.
+ */
+final class SuggestIndex {
+
+    /** Offsets are stored in 16 bits; words starting further in are not indexed */
+    private static final int MAX_OFFSET = 0xFFFF;
+
+    private static final int TITLE = 0;
+    private static final int AUTHOR = 1;
+
+    // Writer state
+
+    private final Map<String, Integer> slotsByBookId = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private Book[] slots = new Book[16];
+    private int slotCount;
+    private final BitSet changed = new BitSet();
+
+    private volatile View view;
+
+    /**
+     * @return whether {@link #publish()} was called at least once
+     */
+    boolean isPublished() {
+        return view != null;
+    }
+
+    /**
+     * @return number of books in the published view
+     */
+    int size() {
+        View current = view;
+        return current == null ? 0 : current.size();
+    }
+
+    /**
+     * Add or replace a book; visible after the next {@link #publish()}.
+     */
+    void put(BookSuggestion book) {
+        Integer slot = slotsByBookId.get(book.getBookId());
+        if (slot == null) {
+            slot = freeSlots.isEmpty() ? slotCount++ : freeSlots.pop();
+            if (slot == slots.length) {
+                slots = Arrays.copyOf(slots, slots.length * 2);
+            }
+            slotsByBookId.put(book.getBookId(), slot);
+        }
+        slots[slot] = new Book(book, normalize(book.getTitle()), normalize(book.getAuthor()));
+        changed.set(slot);
+    }
+
+    /**
+     * Remove a book; visible after the next {@link #publish()}.
+     */
+    void remove(String bookId) {
+        Integer slot = slotsByBookId.remove(bookId);
+        if (slot != null) {
+            slots[slot] = null;
+            freeSlots.push(slot);
+            changed.set(slot);
+        }
+    }
+
+    /**
+     * Make all changes since the last call visible to readers.
+     */
+    void publish() {
+        View current = view;
+        if (current != null && changed.isEmpty()) {
+            return;
+        }
+        Book[] books = Arrays.copyOf(slots, slotCount);
+
+        List<Long> added = new ArrayList<>();
+        for (int slot = changed.nextSetBit(0); slot >= 0 && slot < books.length; slot = changed.nextSetBit(slot + 1)) {
+            if (books[slot] != null) {
+                addEntries(added, slot, TITLE, books[slot].title());
+                addEntries(added, slot, AUTHOR, books[slot].author());
+            }
+        }
+        Comparator<Long> order = (a, b) -> compareSuffixes(books, a, b);
+        added.sort(order);
+
+        long[] previous = current == null ? new long[0] : current.entries();
+        long[] entries = new long[previous.length + added.size()];
+        int size = 0;
+        int next = 0;
+        for (long entry : previous) {
+            if (changed.get(slot(entry))) {
+                continue;
+            }
+            while (next < added.size() && order.compare(added.get(next), entry) < 0) {
+                entries[size++] = added.get(next++);
+            }
+            entries[size++] = entry;
+        }
+        while (next < added.size()) {
+            entries[size++] = added.get(next++);
+        }
+
+        changed.clear();
+        view = new View(books, Arrays.copyOf(entries, size), slotsByBookId.size());
+    }
+
+    /**
+     * Books with a title or author word starting with the query, best first:
+     * matches at the start of the title, then of the author, then of later
+     * words, shorter texts first.
+     *
+     * <p>Only the first {@code maxScan} matching words, in alphabetical order
+     * of the text from the word on, are ranked. A very short prefix can match
+     * more words than that, and a better ranked book further down is then
+     * missed; longer prefixes are ranked completely. A query allocates one
+     * buffer of at most {@code maxScan} entries and one of {@code limit}
+     * entries, never per scanned entry.
+     *
+     * @param query   raw user input
+     * @param limit   maximum number of suggestions
+     * @param maxScan number of matching words considered for ranking
+     */
+    List<BookSuggestion> suggest(String query, int limit, int maxScan) {
+        View current = view;
+        String prefix = normalize(query);
+        if (current == null || prefix.isEmpty()) {
+            return List.of();
+        }
+
+        Book[] books = current.books();
+        long[] entries = current.entries();
+        int from = lowerBound(books, entries, prefix);
+        int to = Math.min(entries.length, from + maxScan);
+
+        long[] matches = new long[to - from];
+        int matchCount = 0;
+        for (int i = from; i < to && comparePrefix(books, entries[i], prefix) == 0; i++) {
+            matches[matchCount++] = entries[i];
+        }
+        // The slot is in the high bits, so the words of a book end up next to each other
+        Arrays.sort(matches, 0, matchCount);
+
+        long[] top = new long[Math.min(limit, matchCount)];
+        int topCount = 0;
+        for (int i = 0; i < matchCount; ) {
+            long best = matches[i];
+            int slot = slot(best);
+            for (i++; i < matchCount && slot(matches[i]) == slot; i++) {
+                if (rank(books, matches[i]) < rank(books, best)) {
+                    best = matches[i];
+                }
+            }
+            topCount = insert(books, top, topCount, best);
+        }
+
+        List<BookSuggestion> suggestions = new ArrayList<>(topCount);
+        for (int i = 0; i < topCount; i++) {
+            suggestions.add(books[slot(top[i])].book());
+        }
+        return suggestions;
+    }
+
+    /**
+     * Insert an entry into the ordered, bounded best-first list.
+     *
+     * @return new number of entries in the list
+     */
+    private static int insert(Book[] books, long[] top, int count, long entry) {
+        int position = count;
+        while (position > 0 && compareRanked(books, entry, top[position - 1]) < 0) {
+            position--;
+        }
+        if (position == top.length) {
+            return count;
+        }
+        int moved = Math.min(count, top.length - 1) - position;
+        System.arraycopy(top, position, top, position + 1, moved);
+        top[position] = entry;
+        return Math.min(count + 1, top.length);
+    }
+
+    private static int compareRanked(Book[] books, long a, long b) {
+        int byRank = Long.compare(rank(books, a), rank(books, b));
+        return byRank != 0 ? byRank
+                : books[slot(a)].book().getTitle().compareTo(books[slot(b)].book().getTitle());
+    }
+
+    /**
+     * Lowercase, strip accents and punctuation, collapse whitespace.
+     * Letters without a decomposition are folded to their base letter.
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFKD);
+        StringBuilder out = new StringBuilder(decomposed.length());
+        boolean separated = true;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = Character.toLowerCase(decomposed.charAt(i));
+            if (Character.getType(c) == Character.NON_SPACING_MARK || c == '\'' || c == '’') {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                appendFolded(out, c);
+                separated = false;
+            } else if (!separated) {
+                out.append(' ');
+                separated = true;
+            }
+        }
+        int length = out.length();
+        if (length > 0 && out.charAt(length - 1) == ' ') {
+            out.setLength(length - 1);
+        }
+        return out.toString();
+    }
+
+    private static void appendFolded(StringBuilder out, char c) {
+        switch (c) {
+            case 'đ', 'ð' -> out.append('d');
+            case 'ł' -> out.append('l');
+            case 'ø' -> out.append('o');
+            case 'ı' -> out.append('i');
+            case 'ß' -> out.append("ss");
+            case 'æ' -> out.append("ae");
+            case 'œ' -> out.append("oe");
+            case 'þ' -> out.append("th");
+            default -> out.append(c);
+        }
+    }
+
+    private static void addEntries(List<Long> entries, int slot, int field, String text) {
+        for (int offset = 0; offset < text.length() && offset <= MAX_OFFSET; offset++) {
+            if (offset == 0 || text.charAt(offset - 1) == ' ') {
+                entries.add(pack(slot, field, offset));
+            }
+        }
+    }
+
+    private static long pack(int slot, int field, int offset) {
+        return ((long) slot << 17) | ((long) field << 16) | offset;
+    }
+
+    private static int slot(long entry) {
+        return (int) (entry >>> 17);
+    }
+
+    private static int field(long entry) {
+        return (int) (entry >>> 16) & 1;
+    }
+
+    private static int offset(long entry) {
+        return (int) entry & 0xFFFF;
+    }
+
+    private static String text(Book[] books, long entry) {
+        Book book = books[slot(entry)];
+        return field(entry) == TITLE ? book.title() : book.author();
+    }
+
+    private static long rank(Book[] books, long entry) {
+        int position = (offset(entry) == 0 ? 0 : 2) + field(entry);
+        return ((long) position << 32) | text(books, entry).length();
+    }
+
+    private static int compareSuffixes(Book[] books, long a, long b) {
+        String left = text(books, a);
+        String right = text(books, b);
+        int i = offset(a);
+        int j = offset(b);
+        while (i < left.length() && j < right.length()) {
+            int diff = left.charAt(i++) - right.charAt(j++);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return (left.length() - i) - (right.length() - j);
+    }
+
+    /**
+     * Compares the suffix at an entry with a prefix: 0 if it starts with the
+     * prefix, otherwise the order of the suffix relative to the prefix.
+     */
+    private static int comparePrefix(Book[] books, long entry, String prefix) {
+        String text = text(books, entry);
+        int offset = offset(entry);
+        int length = Math.min(text.length() - offset, prefix.length());
+        for (int i = 0; i < length; i++) {
+            int diff = text.charAt(offset + i) - prefix.charAt(i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return text.length() - offset >= prefix.length() ? 0 : -1;
+    }
+
+    private static int lowerBound(Book[] books, long[] entries, String prefix) {
+        int low = 0;
+        int high = entries.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comparePrefix(books, entries[mid], prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private record Book(BookSuggestion book, String title, String author) {
+    }
+
+    private record View(Book[] books, long[] entries, int size) {
+    }
+}
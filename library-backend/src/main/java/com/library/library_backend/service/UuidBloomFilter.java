@@ -0,0 +1,99 @@
+package com.library.library_backend.service;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Bloom filter of UUIDs.
+ *
+ * <p>{@link #mightContain} never returns false for an added UUID; it returns
+ * true for a UUID that was not added with about the false-positive rate the
+ * filter was sized for, as long as no more than the expected number of UUIDs
+ * are added. Bits are only ever set, with compare-and-set, so concurrent adds
+ * and lookups need no locking.
+ */
+final class UuidBloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedInsertions number of UUIDs the filter is sized for
+     * @param falsePositiveRate  target rate at that number of UUIDs
+     */
+    UuidBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (bits + 63) / 64);
+        this.words = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+    }
+
+    void add(UUID uuid) {
+        long h1 = hash1(uuid);
+        long h2 = hash2(uuid);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            if ((words.get(word) & mask) == 0) {
+                words.accumulateAndGet(word, mask, (current, set) -> current | set);
+            }
+        }
+    }
+
+    boolean mightContain(UUID uuid) {
+        long h1 = hash1(uuid);
+        long h2 = hash2(uuid);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * False-positive rate to expect at the current fill, (set bits / bits)^k.
+     * Reads every word, so meant for metrics rather than hot paths.
+     */
+    double expectedFalsePositiveRate() {
+        long set = 0;
+        for (int i = 0; i < words.length(); i++) {
+            set += Long.bitCount(words.get(i));
+        }
+        return Math.pow((double) set / bitCount, hashCount);
+    }
+
+    long bitCount() {
+        return bitCount;
+    }
+
+    int hashCount() {
+        return hashCount;
+    }
+
+    // Double hashing (Kirsch-Mitzenmacher) over two mixes of all 128 bits;
+    // version 7 ids are time-ordered, so no part of them is used unmixed.
+
+    private static long hash1(UUID uuid) {
+        return mix(uuid.getMostSignificantBits() ^ mix(uuid.getLeastSignificantBits()));
+    }
+
+    private static long hash2(UUID uuid) {
+        return mix(uuid.getLeastSignificantBits() + 0x9E37_79B9_7F4A_7C15L * uuid.getMostSignificantBits()) | 1;
+    }
+
+    /** Finalizer of MurmurHash3 */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51_AFD7_ED55_8CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CE_B9FE_1A85_EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
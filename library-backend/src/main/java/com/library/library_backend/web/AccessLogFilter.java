@@ -0,0 +1,126 @@
+package com.library.library_backend.web;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Structured, sampled access log.
+ *
+ * <p>Writes one {@code key=value} line per request to the {@code access} logger,
+ * which is routed to an asynchronous appender (see {@code logback-spring.xml}),
+ * so the request thread only enqueues the event. Only the method, path, status,
+ * duration and response size are logged, never request or response bodies.
+ *
+ * <p>Successful requests are sampled with {@code library.access-log.sample-rate};
+ * errors and requests slower than {@code library.access-log.slow-threshold}
+ * are always logged.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private static final Logger accessLog = LoggerFactory.getLogger("access");
+
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+
+    public AccessLogFilter(
+            @Value("${library.access-log.sample-rate:1.0}") double sampleRate,
+            @Value("${library.access-log.slow-threshold-ms:1000}") long slowThresholdMillis
+    ) {
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        long started = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new CompletionListener(request, response, started));
+            } else {
+                log(request, response, started);
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        // Async requests are logged once, by the listener registered on the initial dispatch
+        return true;
+    }
+
+    private void log(HttpServletRequest request, HttpServletResponse response, long started) {
+        if (!accessLog.isInfoEnabled()) {
+            return;
+        }
+        long elapsed = System.nanoTime() - started;
+        int status = response.getStatus();
+        if (status < 400 && elapsed < slowThresholdNanos && !sampled()) {
+            return;
+        }
+        String length = response.getHeader(HttpHeaders.CONTENT_LENGTH);
+        accessLog.info("method={} path={} status={} durationMs={} bytes={}",
+                request.getMethod(),
+                request.getRequestURI(),
+                status,
+                TimeUnit.NANOSECONDS.toMillis(elapsed),
+                length != null ? length : "-");
+    }
+
+    private boolean sampled() {
+        return sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    private final class CompletionListener implements AsyncListener {
+
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final long started;
+
+        private CompletionListener(HttpServletRequest request, HttpServletResponse response, long started) {
+            this.request = request;
+            this.response = response;
+            this.started = started;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            log(request, response, started);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
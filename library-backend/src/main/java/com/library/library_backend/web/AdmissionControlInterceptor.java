@@ -0,0 +1,186 @@
+package com.library.library_backend.web;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.library.library_backend.exception.ServiceUnavailableException;
+import com.library.library_backend.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-client rate limiting and load shedding for the book API.
+ *
+ * <p>Every client (remote address) gets a {@link TokenBucket} per endpoint.
+ * Endpoints marked with {@link ExpensiveEndpoint} use the stricter
+ * {@code library.rate-limit.expensive.*} limits and, on top of that, may only
+ * run {@code library.rate-limit.expensive.max-concurrent} requests at a time
+ * across all clients. Keep that below the connection pool size, so that
+ * cheap single-book reads always find a free connection.
+ *
+ * <p>Rate-limited requests get 429, shed requests 503, both with Retry-After.
+ * The concurrency slot of an async request (e.g. the streamed catalog) is held
+ * until the response completes, not just until the handler returns.
+ *
+ * <p>Behind a reverse proxy, set {@code server.forward-headers-strategy} so the
+ * remote address is the client's and not the proxy's.
+ */
+@Component
+public class AdmissionControlInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String SLOT_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".slot";
+
+    private final Limit defaultLimit;
+    private final Limit expensiveLimit;
+    private final int maxConcurrentExpensive;
+    private final AtomicInteger runningExpensive = new AtomicInteger();
+    private final Cache<String, TokenBucket> buckets;
+    private final MeterRegistry meterRegistry;
+
+    public AdmissionControlInterceptor(
+            MeterRegistry meterRegistry,
+            @Value("${library.rate-limit.default.requests-per-second:50}") double defaultRate,
+            @Value("${library.rate-limit.default.burst:100}") int defaultBurst,
+            @Value("${library.rate-limit.expensive.requests-per-second:2}") double expensiveRate,
+            @Value("${library.rate-limit.expensive.burst:10}") int expensiveBurst,
+            @Value("${library.rate-limit.expensive.max-concurrent:10}") int maxConcurrentExpensive,
+            @Value("${library.rate-limit.max-clients:100000}") long maxClients
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.defaultLimit = new Limit(defaultRate, defaultBurst);
+        this.expensiveLimit = new Limit(expensiveRate, expensiveBurst);
+        this.maxConcurrentExpensive = maxConcurrentExpensive;
+        // Idle buckets are full again after burst / rate; dropping them then changes nothing
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+
+        Gauge.builder("library.requests.expensive.running", runningExpensive, AtomicInteger::get)
+                .description("Expensive requests currently being processed")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod method) || request.getDispatcherType() != DispatcherType.REQUEST) {
+            // Async dispatches belong to a request that was already admitted
+            return true;
+        }
+
+        boolean expensive = method.hasMethodAnnotation(ExpensiveEndpoint.class);
+        String endpoint = method.getMethod().getName();
+        Limit limit = expensive ? expensiveLimit : defaultLimit;
+
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(
+                request.getRemoteAddr() + ' ' + endpoint,
+                key -> new TokenBucket(limit.ratePerSecond(), limit.burst(), now));
+        long waitNanos = bucket.tryAcquire(now);
+        if (waitNanos > 0) {
+            rejected("rate_limit", endpoint);
+            throw new TooManyRequestsException(
+                    "Rate limit exceeded",
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)));
+        }
+
+        if (expensive) {
+            if (!tryAcquireSlot()) {
+                rejected("concurrency", endpoint);
+                throw new ServiceUnavailableException("Server is busy, please retry", 1);
+            }
+            request.setAttribute(SLOT_ATTRIBUTE, new Slot());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(SLOT_ATTRIBUTE) instanceof Slot slot) {
+            request.getAsyncContext().addListener(new SlotReleasingListener(slot));
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(SLOT_ATTRIBUTE) instanceof Slot slot) {
+            slot.release();
+        }
+    }
+
+    private boolean tryAcquireSlot() {
+        while (true) {
+            int running = runningExpensive.get();
+            if (running >= maxConcurrentExpensive) {
+                return false;
+            }
+            if (runningExpensive.compareAndSet(running, running + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void rejected(String reason, String endpoint) {
+        Counter.builder("library.requests.rejected")
+                .description("Requests rejected by admission control")
+                .tag("reason", reason)
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private record Limit(double ratePerSecond, int burst) {
+    }
+
+    /** Concurrency slot of one expensive request, released exactly once */
+    private final class Slot {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                runningExpensive.decrementAndGet();
+            }
+        }
+    }
+
+    private static final class SlotReleasingListener implements AsyncListener {
+
+        private final Slot slot;
+
+        private SlotReleasingListener(Slot slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            slot.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.library.library_backend.web;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a handler method whose cost grows with the catalog (full scans, search,
+ * bulk work).
+ *
+ * Such endpoints get the stricter {@code library.rate-limit.expensive.*}
+ * per-client limits and share a cap on concurrently running requests, so they
+ * cannot take all database connections away from cheap reads.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ExpensiveEndpoint {
+}
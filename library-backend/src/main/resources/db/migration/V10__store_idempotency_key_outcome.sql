@@ -0,0 +1,7 @@
+-- Outcome of the request that completed a key (see BookCreateResult.Outcome),
+-- so a retry is answered with the same status as the first response: 201 for
+-- a created book, 200 for an existing book with the same ISBN.
+-- Keys completed before this column existed were replayed as created.
+ALTER TABLE idempotency_keys ADD COLUMN outcome VARCHAR(16);
+
+UPDATE idempotency_keys SET outcome = 'CREATED' WHERE book_id IS NOT NULL;
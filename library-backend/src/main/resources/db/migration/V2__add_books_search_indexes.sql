@@ -0,0 +1,6 @@
+-- Trigram indexes so that case-insensitive substring search on title and author
+-- (lower(col) LIKE '%q%') can use an index instead of scanning the whole table.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_books_title_trgm ON books USING gin (lower(title) gin_trgm_ops);
+CREATE INDEX idx_books_author_trgm ON books USING gin (lower(author) gin_trgm_ops);
@@ -0,0 +1,2 @@
+-- Optimistic locking column for BookEntity (@Version)
+ALTER TABLE books ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
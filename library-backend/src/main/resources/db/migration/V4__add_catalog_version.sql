@@ -0,0 +1,71 @@
+-- Collection-level version of the books table.
+-- Bumped when a transaction that changed rows in books commits, so list
+-- endpoints can answer conditional GETs (ETag / Last-Modified) with a
+-- single-row lookup instead of reading the catalog.
+--
+-- The bump runs while the transaction commits, not in the statements: a lock
+-- on the single catalog_versions row taken in the first statement would be
+-- held until commit, and concurrent writers would run one after another for
+-- the whole length of their transactions. Statement-level triggers queue one
+-- marker row per transaction, and the one deferred constraint trigger on that
+-- row does the commit work, so the row is only locked for the commit itself.
+CREATE TABLE catalog_versions (
+    name VARCHAR(64) PRIMARY KEY,
+    version BIGINT NOT NULL,
+    modified_at TIMESTAMP NOT NULL
+);
+
+INSERT INTO catalog_versions (name, version, modified_at) VALUES ('books', 0, now());
+
+-- Holds rows of running transactions only, each commit deletes its own.
+-- Unlogged: it is empty after a crash anyway.
+CREATE UNLOGGED TABLE books_commit_markers (
+    txid xid8 PRIMARY KEY DEFAULT pg_current_xact_id()
+);
+
+-- Statements that changed no rows queue nothing
+CREATE FUNCTION queue_books_commit() RETURNS trigger AS $$
+BEGIN
+    IF current_setting('library.books_commit_queued', true) = 'on'
+            OR NOT EXISTS (SELECT 1 FROM changed_rows) THEN
+        RETURN NULL;
+    END IF;
+    PERFORM set_config('library.books_commit_queued', 'on', true);
+    INSERT INTO books_commit_markers DEFAULT VALUES;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER books_commit_queue_insert
+    AFTER INSERT ON books
+    REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION queue_books_commit();
+
+CREATE TRIGGER books_commit_queue_update
+    AFTER UPDATE ON books
+    REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION queue_books_commit();
+
+CREATE TRIGGER books_commit_queue_delete
+    AFTER DELETE ON books
+    REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION queue_books_commit();
+
+CREATE FUNCTION commit_books() RETURNS trigger AS $$
+BEGIN
+    UPDATE catalog_versions
+    SET version = version + 1,
+        modified_at = clock_timestamp()
+    WHERE name = 'books';
+
+    -- After SET CONSTRAINTS ... IMMEDIATE, later statements queue a new marker
+    DELETE FROM books_commit_markers WHERE txid = NEW.txid;
+    PERFORM set_config('library.books_commit_queued', 'off', true);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE CONSTRAINT TRIGGER books_commit
+    AFTER INSERT ON books_commit_markers
+    DEFERRABLE INITIALLY DEFERRED
+    FOR EACH ROW EXECUTE FUNCTION commit_books();
@@ -0,0 +1,6 @@
+-- Store the public book id as a native 16-byte uuid instead of VARCHAR(36).
+-- The existing (version 4) ids are kept; new ids are time-ordered version 7.
+-- The table and its unique index are rewritten under an exclusive lock, so
+-- run this in a maintenance window on large catalogs.
+ALTER TABLE books
+    ALTER COLUMN book_id TYPE uuid USING book_id::uuid;
@@ -0,0 +1,68 @@
+-- Transactional outbox of book changes, streamed by GET /api/books/events.
+--
+-- Events are inserted in the same transaction as the change. book_events.id
+-- is handed out at insert time, in no particular commit order, so every event
+-- also gets a seq while its transaction commits, under the catalog_versions
+-- lock of commit_books() (V4) that puts commits in order. A consumer reading
+-- "seq > last seen seq" never skips an event that commits late. The catalog
+-- version is the seq of the last event of the commit, i.e. the change feed
+-- position the catalog state corresponds to.
+CREATE TABLE book_events (
+    id BIGSERIAL PRIMARY KEY,
+    type VARCHAR(16) NOT NULL,
+    book_id UUID NOT NULL,
+    payload JSONB,
+    created_at TIMESTAMP NOT NULL,
+    modified_at TIMESTAMP NOT NULL,
+    seq BIGINT
+);
+
+-- Retention purge
+CREATE INDEX idx_book_events_created_at ON book_events (created_at);
+
+CREATE UNIQUE INDEX ux_book_events_seq ON book_events (seq);
+
+-- Events of transactions that have not committed yet
+CREATE INDEX idx_book_events_unsequenced ON book_events (id) WHERE seq IS NULL;
+
+-- Continues above every catalog version handed out so far
+CREATE SEQUENCE book_events_seq;
+SELECT setval('book_events_seq', (SELECT version FROM catalog_versions WHERE name = 'books') + 1, false);
+
+CREATE OR REPLACE FUNCTION commit_books() RETURNS trigger AS $$
+DECLARE
+    last_seq BIGINT;
+BEGIN
+    PERFORM 1 FROM catalog_versions WHERE name = 'books' FOR UPDATE;
+
+    -- Unsequenced events of other transactions are not visible until they commit
+    WITH numbered AS (
+        SELECT id, nextval('book_events_seq') AS seq
+        FROM (SELECT id FROM book_events WHERE seq IS NULL ORDER BY id) pending
+    ),
+    sequenced AS (
+        UPDATE book_events e
+        SET seq = numbered.seq
+        FROM numbered
+        WHERE e.id = numbered.id
+        RETURNING e.seq
+    )
+    SELECT max(seq) INTO last_seq FROM sequenced;
+
+    -- Changes made without recording an event still get a new version
+    UPDATE catalog_versions
+    SET version = coalesce(last_seq, nextval('book_events_seq')),
+        modified_at = clock_timestamp()
+    WHERE name = 'books';
+
+    -- After SET CONSTRAINTS ... IMMEDIATE, later statements queue a new marker
+    DELETE FROM books_commit_markers WHERE txid = NEW.txid;
+    PERFORM set_config('library.books_commit_queued', 'off', true);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER book_events_commit_queue_insert
+    AFTER INSERT ON book_events
+    REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION queue_books_commit();
@@ -0,0 +1,10 @@
+-- Indexes for GET /api/books/filter (see BookSpecifications).
+
+-- Author (case-insensitive equality), optionally narrowed or sorted by year
+CREATE INDEX idx_books_author_year ON books (lower(author), published_year);
+
+-- Published year ranges without an author
+CREATE INDEX idx_books_published_year ON books (published_year);
+
+-- Checked-out books; small, because most books are available
+CREATE INDEX idx_books_checked_out ON books (id) WHERE available = false;
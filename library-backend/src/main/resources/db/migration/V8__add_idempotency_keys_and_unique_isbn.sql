@@ -0,0 +1,26 @@
+-- Idempotency-Key store for POST /api/books (see IdempotencyKeyRepository).
+-- A key is claimed in the same transaction that creates the book, so a retry
+-- either waits for that transaction or finds the book it created.
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    request_hash VARCHAR(64) NOT NULL,
+    book_id UUID,
+    created_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
+
+-- One book per ISBN, the arbiter for INSERT ... ON CONFLICT (isbn).
+-- Existing duplicates are left alone: the index is only created when the
+-- catalog allows it, and library.books.isbn-upsert refuses to start without it.
+-- Deduplicate the rows and re-create it by hand to opt in later.
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM books WHERE isbn IS NOT NULL GROUP BY isbn HAVING count(*) > 1) THEN
+        RAISE NOTICE 'books.isbn has duplicates, ux_books_isbn not created';
+    ELSE
+        CREATE UNIQUE INDEX ux_books_isbn ON books (isbn) WHERE isbn IS NOT NULL;
+    END IF;
+END
+$$;
@@ -0,0 +1,150 @@
+-- Catalog statistics, maintained in the same transaction as every write to
+-- books, so GET /api/books/stats reads a few rows instead of counting.
+--   total         ''                     all books
+--   availability  available/checked_out  by availability (NULL counts as available)
+--   author        author                 by author, as stored
+--   year          published_year         by published year, books without one excluded
+--
+-- Upserting book_stats in every statement would hold locks on the total row,
+-- and the availability, author and year rows, until commit, and the total row
+-- would be where concurrent writers queue up. Statements append their net
+-- change to book_stats_changes instead, and commit_books() (V4, V6) folds it
+-- into book_stats while the transaction commits, under the catalog_versions
+-- lock.
+CREATE TABLE book_stats (
+    dimension VARCHAR(16) NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    book_count BIGINT NOT NULL,
+    PRIMARY KEY (dimension, name)
+);
+
+-- Top authors
+CREATE INDEX idx_book_stats_count ON book_stats (dimension, book_count DESC);
+
+INSERT INTO book_stats (dimension, name, book_count)
+SELECT 'total', '', count(*) FROM books;
+
+INSERT INTO book_stats (dimension, name, book_count)
+SELECT 'availability', 'available', count(*) FROM books WHERE COALESCE(available, TRUE)
+UNION ALL
+SELECT 'availability', 'checked_out', count(*) FROM books WHERE NOT COALESCE(available, TRUE);
+
+INSERT INTO book_stats (dimension, name, book_count)
+SELECT 'author', author, count(*) FROM books GROUP BY author;
+
+INSERT INTO book_stats (dimension, name, book_count)
+SELECT 'year', published_year::text, count(*) FROM books
+WHERE published_year IS NOT NULL GROUP BY published_year;
+
+-- Holds rows of running transactions only, each commit deletes its own.
+-- Unlogged: it is empty after a crash anyway.
+CREATE UNLOGGED TABLE book_stats_changes (
+    txid xid8 NOT NULL DEFAULT pg_current_xact_id(),
+    dimension VARCHAR(16) NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    delta BIGINT NOT NULL
+);
+
+CREATE INDEX idx_book_stats_changes_txid ON book_stats_changes (txid);
+
+-- Appends the net change of one statement
+CREATE FUNCTION update_book_stats() RETURNS trigger AS $$
+DECLARE
+    changes TEXT;
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        changes := 'SELECT available, author, published_year, 1 AS delta FROM new_rows';
+    ELSIF TG_OP = 'DELETE' THEN
+        changes := 'SELECT available, author, published_year, -1 AS delta FROM old_rows';
+    ELSE
+        changes := 'SELECT available, author, published_year, 1 AS delta FROM new_rows
+                    UNION ALL
+                    SELECT available, author, published_year, -1 AS delta FROM old_rows';
+    END IF;
+
+    EXECUTE format($sql$
+        WITH changes AS (%s)
+        INSERT INTO book_stats_changes (dimension, name, delta)
+        SELECT dimension, name, sum(delta)
+        FROM (
+            SELECT 'total' AS dimension, '' AS name, delta FROM changes
+            UNION ALL
+            SELECT 'availability',
+                   CASE WHEN COALESCE(available, TRUE) THEN 'available' ELSE 'checked_out' END,
+                   delta
+            FROM changes
+            UNION ALL
+            SELECT 'author', author, delta FROM changes
+            UNION ALL
+            SELECT 'year', published_year::text, delta FROM changes WHERE published_year IS NOT NULL
+        ) keyed
+        GROUP BY dimension, name
+        HAVING sum(delta) <> 0
+    $sql$, changes);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER books_stats_insert
+    AFTER INSERT ON books
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION update_book_stats();
+
+CREATE TRIGGER books_stats_update
+    AFTER UPDATE ON books
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION update_book_stats();
+
+CREATE TRIGGER books_stats_delete
+    AFTER DELETE ON books
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION update_book_stats();
+
+CREATE OR REPLACE FUNCTION commit_books() RETURNS trigger AS $$
+DECLARE
+    last_seq BIGINT;
+BEGIN
+    PERFORM 1 FROM catalog_versions WHERE name = 'books' FOR UPDATE;
+
+    -- Unsequenced events of other transactions are not visible until they commit
+    WITH numbered AS (
+        SELECT id, nextval('book_events_seq') AS seq
+        FROM (SELECT id FROM book_events WHERE seq IS NULL ORDER BY id) pending
+    ),
+    sequenced AS (
+        UPDATE book_events e
+        SET seq = numbered.seq
+        FROM numbered
+        WHERE e.id = numbered.id
+        RETURNING e.seq
+    )
+    SELECT max(seq) INTO last_seq FROM sequenced;
+
+    -- Changes made without recording an event still get a new version
+    UPDATE catalog_versions
+    SET version = coalesce(last_seq, nextval('book_events_seq')),
+        modified_at = clock_timestamp()
+    WHERE name = 'books';
+
+    -- Fold the statistics deltas in under the same lock, in key order, so
+    -- concurrent commits lock stats rows in the same order. Rows that drop to
+    -- zero are kept and filtered out when reading.
+    WITH changes AS (
+        DELETE FROM book_stats_changes
+        WHERE txid = pg_current_xact_id()
+        RETURNING dimension, name, delta
+    )
+    INSERT INTO book_stats (dimension, name, book_count)
+    SELECT dimension, name, sum(delta) FROM changes
+    GROUP BY dimension, name
+    HAVING sum(delta) <> 0
+    ORDER BY dimension, name
+    ON CONFLICT (dimension, name) DO UPDATE
+    SET book_count = book_stats.book_count + EXCLUDED.book_count;
+
+    -- After SET CONSTRAINTS ... IMMEDIATE, later statements queue a new marker
+    DELETE FROM books_commit_markers WHERE txid = NEW.txid;
+    PERFORM set_config('library.books_commit_queued', 'off', true);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
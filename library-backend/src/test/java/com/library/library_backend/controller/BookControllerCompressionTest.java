@@ -0,0 +1,132 @@
+package com.library.library_backend.controller;
+
+import com.library.library_backend.config.BinaryEncodingConfig;
+import com.library.library_backend.dto.BookResponse;
+import com.library.library_backend.dto.ResourceVersion;
+import com.library.library_backend.dto.Versioned;
+import com.library.library_backend.exception.GlobalExceptionHandler;
+import com.library.library_backend.service.BookChangeFeed;
+import com.library.library_backend.service.BookExportService;
+import com.library.library_backend.service.BookImportService;
+import com.library.library_backend.service.BookMetrics;
+import com.library.library_backend.service.BookService;
+import com.library.library_backend.service.BookSuggestService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks against the embedded servlet container that the large list and page
+ * responses are actually gzip-compressed; MockMvc does not compress.
+ */
+@SpringBootTest(
+		classes = BookControllerCompressionTest.Web.class,
+		webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = {
+				"server.compression.enabled=true",
+				"server.compression.mime-types=application/json,application/x-ndjson,application/cbor,application/x-jackson-smile",
+				"server.compression.min-response-size=2KB"
+		}
+)
+class BookControllerCompressionTest {
+
+	@EnableAutoConfiguration(exclude = {
+			DataSourceAutoConfiguration.class,
+			HibernateJpaAutoConfiguration.class,
+			FlywayAutoConfiguration.class
+	})
+	@Import({BookController.class, BinaryEncodingConfig.class, GlobalExceptionHandler.class})
+	static class Web {
+	}
+
+	@MockBean
+	private BookService service;
+	@MockBean
+	private BookExportService exportService;
+	@MockBean
+	private BookImportService importService;
+	@MockBean
+	private BookChangeFeed changeFeed;
+	@MockBean
+	private BookSuggestService suggestService;
+	@MockBean
+	private BookMetrics metrics;
+
+	@LocalServerPort
+	private int port;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	@BeforeEach
+	void largeCatalog() throws Exception {
+		List<BookResponse> books = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			books.add(new BookResponse(UUID.randomUUID(), "Title " + i, "Author " + i, null, 2000, true));
+		}
+		ResourceVersion version = new ResourceVersion(42, Instant.now());
+		when(service.getCatalogVersion()).thenReturn(version);
+		when(service.getBooksPage(any()))
+				.thenReturn(new Versioned<>(version, new PageImpl<>(books, PageRequest.of(0, 500), 500)));
+		when(exportService.writeJsonArray(any(), any())).thenAnswer(invocation -> {
+			OutputStream out = invocation.getArgument(0);
+			Consumer<ResourceVersion> onVersion = invocation.getArgument(1);
+			onVersion.accept(version);
+			out.write('[');
+			for (int i = 0; i < books.size(); i++) {
+				out.write((i > 0 ? ",{\"title\":\"Title " : "{\"title\":\"Title ")
+						.concat(i + "\"}").getBytes(StandardCharsets.UTF_8));
+			}
+			out.write(']');
+			return (long) books.size();
+		});
+	}
+
+	private HttpResponse<byte[]> get(String path, String ifNoneMatch) throws Exception {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+				.header("Accept-Encoding", "gzip");
+		if (ifNoneMatch != null) {
+			request.header("If-None-Match", ifNoneMatch);
+		}
+		return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+	}
+
+	@Test
+	void largeListAndPageResponsesAreCompressed() throws Exception {
+		for (String path : List.of("/api/books", "/api/books/page?size=500")) {
+			HttpResponse<byte[]> response = get(path, null);
+
+			assertThat(response.statusCode()).isEqualTo(200);
+			assertThat(response.headers().firstValue("Content-Encoding")).contains("gzip");
+			assertThat(response.headers().allValues("ETag")).hasSize(1);
+			String etag = response.headers().firstValue("ETag").orElseThrow();
+			assertThat(etag).startsWith("W/");
+
+			assertThat(get(path, etag).statusCode()).isEqualTo(304);
+		}
+	}
+}
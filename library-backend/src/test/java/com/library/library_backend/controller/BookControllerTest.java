@@ -0,0 +1,195 @@
+package com.library.library_backend.controller;
+
+import com.library.library_backend.dto.BookResponse;
+import com.library.library_backend.dto.ResourceVersion;
+import com.library.library_backend.dto.Versioned;
+import com.library.library_backend.exception.GlobalExceptionHandler;
+import com.library.library_backend.service.BookChangeFeed;
+import com.library.library_backend.service.BookExportService;
+import com.library.library_backend.service.BookImportService;
+import com.library.library_backend.service.BookMetrics;
+import com.library.library_backend.service.BookService;
+import com.library.library_backend.service.BookSuggestService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.ServerErrorMessage;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class BookControllerTest {
+
+	private final BookService service = mock(BookService.class);
+	private final BookExportService exportService = mock(BookExportService.class);
+	private final BookChangeFeed changeFeed = mock(BookChangeFeed.class);
+
+	private final MockMvc mvc = MockMvcBuilders
+			.standaloneSetup(new BookController(
+					service,
+					exportService,
+					mock(BookImportService.class),
+					changeFeed,
+					mock(BookSuggestService.class),
+					new BookMetrics(new SimpleMeterRegistry())))
+			.setControllerAdvice(new GlobalExceptionHandler())
+			.build();
+
+	@Test
+	void malformedAcceptHeaderIsBadRequest() throws Exception {
+		for (String path : List.of("/api/books", "/api/books/page")) {
+			for (String accept : List.of("garbage", "application/json;q=abc", "text/html;charset=\"unterminated")) {
+				mvc.perform(get(path).header(HttpHeaders.ACCEPT, accept))
+						.andExpect(status().isBadRequest())
+						.andExpect(content().contentType(MediaType.APPLICATION_JSON))
+						.andExpect(jsonPath("$.message").value("Malformed Accept header"));
+			}
+		}
+	}
+
+	@Test
+	void singleBookIsOnlyServedAsJson() throws Exception {
+		UUID bookId = new UUID(0, 1);
+		when(service.getBook(bookId.toString())).thenReturn(new Versioned<>(
+				new ResourceVersion(3, Instant.now()), new BookResponse(bookId, "Title", "Author", null, null, true)));
+
+		mvc.perform(get("/api/books/" + bookId).header(HttpHeaders.ACCEPT, MediaType.APPLICATION_CBOR_VALUE))
+				.andExpect(status().isNotAcceptable());
+		mvc.perform(get("/api/books/" + bookId).header(HttpHeaders.ACCEPT, "*/*"))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_JSON))
+				.andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+	}
+
+	@Test
+	void pageIsNegotiable() throws Exception {
+		when(service.getBooksPage(any())).thenReturn(emptyPage());
+
+		mvc.perform(get("/api/books/page").header(HttpHeaders.ACCEPT, MediaType.APPLICATION_CBOR_VALUE))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+				.andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+	}
+
+	@Test
+	void pageHonoursQualityValues() throws Exception {
+		when(service.getBooksPage(any())).thenReturn(emptyPage());
+
+		Map<String, MediaType> expected = Map.of(
+				"application/json;q=0.1, application/cbor", MediaType.APPLICATION_CBOR,
+				"application/cbor;q=0.5, application/json;q=0.9", MediaType.APPLICATION_JSON,
+				"application/cbor;q=0, */*", MediaType.APPLICATION_JSON,
+				"application/json;q=0, application/*;q=0.5", MediaType.APPLICATION_CBOR);
+		for (Map.Entry<String, MediaType> entry : expected.entrySet()) {
+			mvc.perform(get("/api/books/page").header(HttpHeaders.ACCEPT, entry.getKey()))
+					.andExpect(status().isOk())
+					.andExpect(content().contentType(entry.getValue()));
+		}
+	}
+
+	@Test
+	void pageIsNotAcceptableWhenEveryTypeIsRuledOut() throws Exception {
+		when(service.getBooksPage(any())).thenReturn(emptyPage());
+
+		for (String accept : List.of("application/cbor;q=0", "*/*;q=0")) {
+			mvc.perform(get("/api/books/page").header(HttpHeaders.ACCEPT, accept))
+					.andExpect(status().isNotAcceptable());
+		}
+	}
+
+	@Test
+	void pageIsTaggedWithTheVersionReadWithIt() throws Exception {
+		when(service.getCatalogVersion()).thenReturn(new ResourceVersion(9, Instant.now()));
+		when(service.getBooksPage(any())).thenReturn(emptyPage());
+
+		mvc.perform(get("/api/books/page"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "W/\"3-json\""));
+		mvc.perform(get("/api/books/page").header(HttpHeaders.IF_NONE_MATCH, "W/\"3-json\""))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	void exportIsTaggedWithTheVersionReadWithTheBooks() throws Exception {
+		// The version checked up front comes from a replica ahead of the one the books come from
+		when(service.getCatalogVersion()).thenReturn(new ResourceVersion(9, Instant.now()));
+		when(exportService.writeNdjson(any(), any())).thenAnswer(invocation -> {
+			Consumer<ResourceVersion> onVersion = invocation.getArgument(1);
+			onVersion.accept(new ResourceVersion(7, Instant.parse("2026-01-01T00:00:00Z")));
+			return 0L;
+		});
+
+		MvcResult result = mvc.perform(get("/api/books").header(HttpHeaders.ACCEPT, MediaType.APPLICATION_NDJSON_VALUE))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		mvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(header().stringValues(HttpHeaders.ETAG, "W/\"7-x-ndjson\""))
+				.andExpect(header().string(HttpHeaders.LAST_MODIFIED, "Thu, 01 Jan 2026 00:00:00 GMT"));
+	}
+
+	@Test
+	void eventsResumeFromLastEventIdBeforeAfter() throws Exception {
+		// The feed mock has no free subscriber slot
+		mvc.perform(get("/api/books/events").param("after", "3").header("Last-Event-ID", "7"))
+				.andExpect(status().isServiceUnavailable())
+				.andExpect(header().string(HttpHeaders.RETRY_AFTER, "5"));
+		mvc.perform(get("/api/books/events").param("after", "3"))
+				.andExpect(status().isServiceUnavailable());
+
+		verify(changeFeed).subscribe(7L);
+		verify(changeFeed).subscribe(3L);
+	}
+
+	@Test
+	void onlyDuplicateIsbnOrIdempotencyKeyIsAConflict() throws Exception {
+		String body = "{\"title\":\"Title\",\"author\":\"Author\"}";
+		when(service.addBook(any(), any()))
+				.thenThrow(integrityViolation("23505", "ux_books_isbn"))
+				.thenThrow(integrityViolation("23505", "idempotency_keys_pkey"))
+				.thenThrow(integrityViolation("23502", null))
+				.thenThrow(integrityViolation("23505", "books_book_id_key"));
+
+		for (ResultMatcher expected : List.of(
+				status().isConflict(), status().isConflict(), status().isBadRequest(), status().isBadRequest())) {
+			mvc.perform(post("/api/books").contentType(MediaType.APPLICATION_JSON).content(body))
+					.andExpect(expected);
+		}
+	}
+
+	private static Versioned<Page<BookResponse>> emptyPage() {
+		return new Versioned<>(new ResourceVersion(3, Instant.now()), new PageImpl<>(List.of(), PageRequest.of(0, 10), 0));
+	}
+
+	private static DataIntegrityViolationException integrityViolation(String sqlState, String constraint) {
+		String fields = "SERROR\0C" + sqlState + "\0Mviolation\0" + (constraint == null ? "" : "n" + constraint + "\0");
+		return new DataIntegrityViolationException("violation", new PSQLException(new ServerErrorMessage(fields)));
+	}
+}
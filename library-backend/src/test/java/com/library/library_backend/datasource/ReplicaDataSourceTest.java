@@ -0,0 +1,87 @@
+package com.library.library_backend.datasource;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class ReplicaDataSourceTest {
+
+	private final DataSource primary = mock(DataSource.class);
+	private final DataSource replicaA = mock(DataSource.class);
+	private final DataSource replicaB = mock(DataSource.class);
+
+	private ReplicaDataSource replicas(StaleReadFallback fallback) {
+		return new ReplicaDataSource(
+				List.of("a", "b"),
+				List.of(replicaA, replicaB),
+				primary,
+				Duration.ofSeconds(5),
+				fallback
+		);
+	}
+
+	@Test
+	void roundRobinsOverHealthyReplicas() throws SQLException {
+		ReplicaDataSource dataSource = replicas(StaleReadFallback.PRIMARY);
+
+		assertThat(List.of(dataSource.select(), dataSource.select(), dataSource.select()))
+				.containsExactly(replicaA, replicaB, replicaA);
+	}
+
+	@Test
+	void skipsUnreachableAndLaggingReplicas() throws SQLException {
+		ReplicaDataSource dataSource = replicas(StaleReadFallback.PRIMARY);
+		dataSource.updateStatus(0, false, Duration.ZERO);
+
+		assertThat(dataSource.select()).isSameAs(replicaB);
+		assertThat(dataSource.select()).isSameAs(replicaB);
+
+		dataSource.updateStatus(0, true, Duration.ofSeconds(30));
+		assertThat(dataSource.select()).isSameAs(replicaB);
+	}
+
+	@Test
+	void skipsReplicasThatStoppedStreaming() throws SQLException {
+		ReplicaDataSource dataSource = replicas(StaleReadFallback.PRIMARY);
+		// A disconnected replica has replayed all it received, so its lag alone looks fine
+		dataSource.updateStatus(0, true, false, Duration.ZERO);
+
+		assertThat(dataSource.select()).isSameAs(replicaB);
+		assertThat(dataSource.select()).isSameAs(replicaB);
+		assertThat(dataSource.getStatus().get(0).usable()).isFalse();
+	}
+
+	@Test
+	void fallsBackToPrimaryWhenAllReplicasAreStale() throws SQLException {
+		ReplicaDataSource dataSource = replicas(StaleReadFallback.PRIMARY);
+		dataSource.updateStatus(0, true, Duration.ofSeconds(30));
+		dataSource.updateStatus(1, false, Duration.ZERO);
+
+		assertThat(dataSource.select()).isSameAs(primary);
+	}
+
+	@Test
+	void staleReplicaFallbackUsesLeastLaggedReachableReplica() throws SQLException {
+		ReplicaDataSource dataSource = replicas(StaleReadFallback.STALE_REPLICA);
+		dataSource.updateStatus(0, true, Duration.ofSeconds(60));
+		dataSource.updateStatus(1, true, Duration.ofSeconds(20));
+
+		assertThat(dataSource.select()).isSameAs(replicaB);
+	}
+
+	@Test
+	void failFallbackRejectsReads() {
+		ReplicaDataSource dataSource = replicas(StaleReadFallback.FAIL);
+		dataSource.updateStatus(0, false, Duration.ZERO);
+		dataSource.updateStatus(1, false, Duration.ZERO);
+
+		assertThatThrownBy(dataSource::select).isInstanceOf(SQLException.class);
+	}
+}
@@ -0,0 +1,42 @@
+package com.library.library_backend.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7Test {
+
+	@Test
+	void setsVersionVariantAndTimestamp() {
+		long millis = 1_700_000_000_000L;
+
+		UUID uuid = UuidV7.generate(millis);
+
+		assertThat(uuid.version()).isEqualTo(7);
+		assertThat(uuid.variant()).isEqualTo(2);
+		assertThat(uuid.getMostSignificantBits() >>> 16).isEqualTo(millis);
+		assertThat(UuidV7.timestamp(uuid)).isEqualTo(millis);
+		assertThat(UuidV7.timestamp(UUID.randomUUID())).isEqualTo(-1);
+	}
+
+	@Test
+	void ordersByCreationTime() {
+		UUID earlier = UuidV7.generate(1_700_000_000_000L);
+		UUID later = UuidV7.generate(1_700_000_000_001L);
+
+		// Same order as PostgreSQL's unsigned byte-wise uuid comparison
+		assertThat(earlier.toString()).isLessThan(later.toString());
+	}
+
+	@Test
+	void parsesOnlyCanonicalForm() {
+		UUID uuid = UuidV7.generate();
+
+		assertThat(UuidV7.parse(uuid.toString())).contains(uuid);
+		assertThat(UuidV7.parse(uuid.toString().toUpperCase())).isEmpty();
+		assertThat(UuidV7.parse("1-1-1-1-1")).isEmpty();
+		assertThat(UuidV7.parse(null)).isEmpty();
+	}
+}
@@ -0,0 +1,80 @@
+package com.library.library_backend.repository;
+
+import com.library.library_backend.dto.BookResponse;
+import com.library.library_backend.entity.BookEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that the availability updates return the row as updated, even when
+ * an entity of the same book is already managed in the transaction.
+ *
+ * Needs Docker; skipped otherwise.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class BookAvailabilityUpdateTest {
+
+	@Container
+	private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+	@Autowired
+	private BookRepository repository;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@DynamicPropertySource
+	static void dataSource(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", postgres::getJdbcUrl);
+		registry.add("spring.datasource.username", postgres::getUsername);
+		registry.add("spring.datasource.password", postgres::getPassword);
+	}
+
+	private UUID insertAvailableBook() {
+		UUID bookId = UUID.randomUUID();
+		jdbc.update("""
+				INSERT INTO books (book_id, title, author, available, created_at, modified_at)
+				VALUES (?, 'Title', 'Author', TRUE, now(), now())
+				""", bookId);
+		return bookId;
+	}
+
+	@Test
+	void toggleReturnsUpdatedRowWhileEntityIsManaged() {
+		UUID bookId = insertAvailableBook();
+		BookEntity managed = repository.findByBookId(bookId).orElseThrow();
+
+		BookResponse toggled = repository.toggleAvailability(bookId, Instant.now()).orElseThrow();
+
+		assertThat(managed.getAvailable()).isTrue();
+		assertThat(toggled.getBookId()).isEqualTo(bookId.toString());
+		assertThat(toggled.getAvailable()).isFalse();
+		assertThat(repository.toggleAvailability(bookId, Instant.now()).orElseThrow().getAvailable()).isTrue();
+	}
+
+	@Test
+	void updateIfChangedOnlyUpdatesAnotherState() {
+		UUID bookId = insertAvailableBook();
+		repository.findByBookId(bookId).orElseThrow();
+
+		assertThat(repository.updateAvailabilityIfChanged(bookId, true, Instant.now())).isEmpty();
+		assertThat(repository.updateAvailabilityIfChanged(bookId, false, Instant.now()))
+				.get().extracting(BookResponse::getAvailable).isEqualTo(false);
+		assertThat(repository.updateAvailabilityIfChanged(UUID.randomUUID(), false, Instant.now())).isEmpty();
+	}
+}
@@ -0,0 +1,70 @@
+package com.library.library_backend.repository;
+
+import com.library.library_backend.dto.BookResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that {@link BookRepository#streamAllResponses()}, which feeds every
+ * encoding of {@code GET /api/books}, returns books in bookId order, the order
+ * of {@code CatalogSnapshot}: canonical bookId strings sorted as text.
+ *
+ * Needs Docker; skipped otherwise.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class BookExportOrderTest {
+
+	@Container
+	private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+	@Autowired
+	private BookRepository repository;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@DynamicPropertySource
+	static void dataSource(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", postgres::getJdbcUrl);
+		registry.add("spring.datasource.username", postgres::getUsername);
+		registry.add("spring.datasource.password", postgres::getPassword);
+	}
+
+	@Test
+	void streamsBooksInBookIdOrderRegardlessOfInsertionOrder() {
+		// Inserted out of order; the first one is negative as a signed Java UUID
+		List<String> bookIds = List.of(
+				"f0000000-0000-7000-8000-000000000000",
+				"00000000-0000-7000-8000-000000000002",
+				"80000000-0000-7000-8000-000000000000",
+				"00000000-0000-7000-8000-000000000001");
+		for (String bookId : bookIds) {
+			jdbc.update("""
+					INSERT INTO books (book_id, title, author, available, created_at, modified_at)
+					VALUES (?::uuid, 'Title', 'Author', TRUE, now(), now())
+					""", bookId);
+		}
+
+		List<String> streamed;
+		try (Stream<BookResponse> books = repository.streamAllResponses()) {
+			streamed = books.map(BookResponse::getBookId).toList();
+		}
+
+		assertThat(streamed).containsExactlyElementsOf(bookIds.stream().sorted().toList());
+	}
+}
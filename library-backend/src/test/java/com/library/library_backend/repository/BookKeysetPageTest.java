@@ -0,0 +1,68 @@
+package com.library.library_backend.repository;
+
+import com.library.library_backend.dto.BookResponse;
+import com.library.library_backend.repository.BookRepository.KeyedResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that {@link BookRepository#findResponsesAfter}, behind
+ * {@code GET /api/books/cursor}, seeks past the given id and returns each
+ * book with its id.
+ *
+ * Needs Docker; skipped otherwise.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class BookKeysetPageTest {
+
+	@Container
+	private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+	@Autowired
+	private BookRepository repository;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@DynamicPropertySource
+	static void dataSource(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", postgres::getJdbcUrl);
+		registry.add("spring.datasource.username", postgres::getUsername);
+		registry.add("spring.datasource.password", postgres::getPassword);
+	}
+
+	@Test
+	void returnsTheBooksAfterAnIdInIdOrder() {
+		for (String title : List.of("First", "Second", "Third")) {
+			jdbc.update("""
+					INSERT INTO books (book_id, title, author, available, created_at, modified_at)
+					VALUES (?, ?, 'Author', TRUE, now(), now())
+					""", UUID.randomUUID(), title);
+		}
+
+		List<KeyedResponse> first = repository.findResponsesAfter(0, Limit.of(2));
+		List<KeyedResponse> rest = repository.findResponsesAfter(first.get(1).id(), Limit.of(2));
+
+		assertThat(first).extracting(KeyedResponse::book).extracting(BookResponse::getTitle)
+				.containsExactly("First", "Second");
+		assertThat(first.get(0).id()).isLessThan(first.get(1).id());
+		assertThat(rest).extracting(KeyedResponse::book).extracting(BookResponse::getTitle)
+				.containsExactly("Third");
+	}
+}
@@ -0,0 +1,109 @@
+package com.library.library_backend.repository;
+
+import com.library.library_backend.dto.BookStats;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that the triggers of {@code V9__create_book_stats_table.sql} keep
+ * {@code book_stats} equal to counting books, across multi-row statements,
+ * and that the commit-time work of V4, V6 and V9 is queued once per
+ * transaction.
+ *
+ * Needs Docker; skipped otherwise.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class BookStatsRepositoryTest {
+
+	@Container
+	private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+	private static JdbcTemplate jdbc;
+	private static BookStatsRepository repository;
+
+	@BeforeAll
+	static void migrate() {
+		Flyway.configure()
+				.dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+				.load()
+				.migrate();
+
+		jdbc = new JdbcTemplate(new DriverManagerDataSource(
+				postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()));
+		repository = new BookStatsRepository(jdbc);
+	}
+
+	@Test
+	void followsInsertsUpdatesAndDeletes() {
+		// 30 books by 3 authors, 10 years, every third one checked out, one in five without a year
+		jdbc.execute("""
+				INSERT INTO books (book_id, title, author, published_year, available, created_at, modified_at)
+				SELECT gen_random_uuid(), 'Title ' || i, 'Author ' || (i % 3),
+				       CASE WHEN i % 5 = 0 THEN NULL ELSE 2000 + (i % 10) END, i % 3 <> 0, now(), now()
+				FROM generate_series(1, 30) AS i
+				""");
+		jdbc.update("UPDATE books SET author = 'Author 1' WHERE author = 'Author 0'");
+		jdbc.update("UPDATE books SET available = TRUE WHERE title IN ('Title 3', 'Title 6')");
+		jdbc.update("DELETE FROM books WHERE published_year = 2001");
+
+		BookStats stats = repository.findStats(2);
+
+		assertThat(stats.getTotal()).isEqualTo(count("TRUE"));
+		assertThat(stats.getAvailable()).isEqualTo(count("COALESCE(available, TRUE)"));
+		assertThat(stats.getCheckedOut()).isEqualTo(count("NOT available"));
+		assertThat(stats.getTopAuthors()).containsExactly(
+				Map.entry("Author 1", count("author = 'Author 1'")),
+				Map.entry("Author 2", count("author = 'Author 2'")));
+		assertThat(stats.getPublishedYears()).doesNotContainKey(2001).hasSize(7)
+				.containsEntry(2002, count("published_year = 2002"));
+		assertThat(repository.countBooks()).isEqualTo(stats.getTotal());
+	}
+
+	@Test
+	void queuesCommitWorkOncePerTransaction() {
+		long total = repository.countBooks();
+		long version = jdbc.queryForObject("SELECT version FROM catalog_versions WHERE name = 'books'", Long.class);
+		TransactionTemplate transaction =
+				new TransactionTemplate(new DataSourceTransactionManager(jdbc.getDataSource()));
+
+		long markers = transaction.execute(status -> {
+			for (int i = 0; i < 3; i++) {
+				jdbc.update("""
+						INSERT INTO books (book_id, title, author, available, created_at, modified_at)
+						SELECT gen_random_uuid(), 'Queued ' || n, 'Queued author', TRUE, now(), now()
+						FROM generate_series(1, 10) AS n
+						""");
+				jdbc.update("""
+						INSERT INTO book_events (type, book_id, created_at, modified_at)
+						SELECT 'CREATED', gen_random_uuid(), now(), now() FROM generate_series(1, 10)
+						""");
+			}
+			jdbc.update("UPDATE books SET title = title WHERE FALSE");
+			return jdbc.queryForObject("SELECT count(*) FROM books_commit_markers", Long.class);
+		});
+
+		assertThat(markers).isEqualTo(1);
+		assertThat(jdbc.queryForObject("SELECT count(*) FROM books_commit_markers", Long.class)).isZero();
+		assertThat(jdbc.queryForObject("SELECT count(*) FROM book_events WHERE seq IS NULL", Long.class)).isZero();
+		assertThat(jdbc.queryForObject("SELECT version FROM catalog_versions WHERE name = 'books'", Long.class))
+				.isEqualTo(jdbc.queryForObject("SELECT max(seq) FROM book_events", Long.class))
+				.isGreaterThan(version);
+		assertThat(repository.countBooks()).isEqualTo(total + 30);
+	}
+
+	private static long count(String condition) {
+		return jdbc.queryForObject("SELECT count(*) FROM books WHERE " + condition, Long.class);
+	}
+}
@@ -0,0 +1,51 @@
+package com.library.library_backend.service;
+
+import com.library.library_backend.config.CacheConfig;
+import com.library.library_backend.dto.BookEvent;
+import com.library.library_backend.dto.BookResponse;
+import com.library.library_backend.dto.ResourceVersion;
+import com.library.library_backend.dto.Versioned;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookCacheInvalidatorTest {
+
+	private static final String CHANGED = "01a1503e-bf5f-724c-830e-c729dd5b0d29";
+	private static final String UNCHANGED = "01a1503e-bfe5-7086-bffb-5c1bc3981195";
+
+	private final BookEventService eventService = mock(BookEventService.class);
+	private final ConcurrentMapCacheManager cacheManager =
+			new ConcurrentMapCacheManager(CacheConfig.BOOKS_CACHE);
+	private final Cache books = cacheManager.getCache(CacheConfig.BOOKS_CACHE);
+
+	private final BookCacheInvalidator invalidator = new BookCacheInvalidator(eventService, cacheManager);
+
+	private static Versioned<BookResponse> book(String bookId) {
+		return new Versioned<>(new ResourceVersion(1, Instant.now()),
+				new BookResponse(UUID.fromString(bookId), "Title", "Author", null, null, true));
+	}
+
+	@Test
+	void evictsBooksChangedElsewhere() {
+		when(eventService.getLatestSequence()).thenReturn(7L);
+		books.put(CHANGED, book(CHANGED));
+		assertThat(invalidator.load()).isEqualTo(7L);
+		assertThat(books.get(CHANGED)).isNull();
+
+		books.put(CHANGED, book(CHANGED));
+		books.put(UNCHANGED, book(UNCHANGED));
+		invalidator.apply(List.of(new BookEvent(8, "UPDATED", CHANGED, "{}", Instant.now())));
+
+		assertThat(books.get(CHANGED)).isNull();
+		assertThat(books.get(UNCHANGED)).isNotNull();
+	}
+}
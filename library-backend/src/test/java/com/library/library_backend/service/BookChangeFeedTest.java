@@ -0,0 +1,109 @@
+package com.library.library_backend.service;
+
+import com.library.library_backend.dto.BookEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookChangeFeedTest {
+
+	private final BookEventService eventService = mock(BookEventService.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private BookChangeFeed feed;
+
+	@BeforeEach
+	void idleBetweenPolls() throws InterruptedException {
+		doAnswer(invocation -> {
+			Thread.sleep(10);
+			return null;
+		}).when(eventService).awaitEvents(anyLong(), any());
+	}
+
+	@AfterEach
+	void shutdown() {
+		feed.shutdown();
+	}
+
+	private BookChangeFeed feed(int maxSubscribers, Duration heartbeatInterval) {
+		feed = new BookChangeFeed(eventService, meterRegistry, maxSubscribers, 2,
+				Duration.ofMillis(10), heartbeatInterval, Duration.ofMinutes(1));
+		return feed;
+	}
+
+	private static BookEvent event(long sequence) {
+		return new BookEvent(sequence, "DELETED", UUID.randomUUID().toString(), null, Instant.now());
+	}
+
+	@Test
+	void resumesAfterTheGivenPosition() {
+		List<BookEvent> events = List.of(event(43), event(44));
+		when(eventService.getEventsAfter(42L, 2)).thenReturn(events);
+
+		assertThat(feed(1, Duration.ofMinutes(1)).subscribe(42L)).isPresent();
+
+		verify(eventService, timeout(1000)).getEventsAfter(42L, 2);
+		verify(eventService, timeout(1000).atLeastOnce()).getEventsAfter(44L, 2);
+		verify(eventService, never()).getLatestSequence();
+	}
+
+	@Test
+	void startsAtTheLatestEventWithoutPosition() {
+		when(eventService.getLatestSequence()).thenReturn(17L);
+
+		feed(1, Duration.ofMinutes(1)).subscribe(null);
+
+		verify(eventService, timeout(1000).atLeastOnce()).getEventsAfter(eq(17L), anyInt());
+	}
+
+	@Test
+	void rejectsSubscribersOverTheLimitUntilAStreamCloses() throws InterruptedException {
+		// A heartbeat on every idle poll notices the closed stream right away
+		BookChangeFeed feed = feed(1, Duration.ZERO);
+
+		SseEmitter first = feed.subscribe(0L).orElseThrow();
+		assertThat(feed.subscribe(0L)).isEmpty();
+		assertThat(meterRegistry.get("library.events.subscribers").gauge().value()).isEqualTo(1);
+
+		first.complete();
+
+		long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		Optional<SseEmitter> next = feed.subscribe(0L);
+		while (next.isEmpty() && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+			next = feed.subscribe(0L);
+		}
+		assertThat(next).isPresent();
+	}
+
+	@Test
+	void releasesTheSubscriberSlotWhenTheStartPositionCannotBeRead() {
+		when(eventService.getLatestSequence()).thenThrow(new IllegalStateException("database down"));
+		BookChangeFeed feed = feed(1, Duration.ofMinutes(1));
+
+		assertThatThrownBy(() -> feed.subscribe(null)).isInstanceOf(IllegalStateException.class);
+
+		assertThat(feed.subscribe(0L)).isPresent();
+	}
+}
@@ -0,0 +1,94 @@
+package com.library.library_backend.service;
+
+import com.library.library_backend.dto.BookEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookEventFollowerTest {
+
+	private final BookEventService eventService = mock(BookEventService.class);
+	private final BookEventConsumer first = mock(BookEventConsumer.class);
+	private final BookEventConsumer second = mock(BookEventConsumer.class);
+	private final BookEventConsumer disabled = mock(BookEventConsumer.class);
+
+	private final BookEventFollower follower =
+			new BookEventFollower(eventService, List.of(first, second, disabled), Duration.ofSeconds(1));
+
+	private static BookEvent event(long sequence) {
+		return new BookEvent(sequence, "DELETED", UUID.randomUUID().toString(), null, Instant.now());
+	}
+
+	@Test
+	void appliesEventsFromThePrimaryAfterEachConsumersOwnPosition() {
+		when(first.isEnabled()).thenReturn(true);
+		when(first.load()).thenReturn(10L);
+		when(second.isEnabled()).thenReturn(true);
+		when(second.load()).thenReturn(12L);
+		List<BookEvent> events = List.of(event(11), event(12), event(13));
+		when(eventService.getEventsAfterOnPrimary(eq(10L), anyInt())).thenReturn(events);
+		when(eventService.getEventsAfterOnPrimary(eq(13L), anyInt())).thenReturn(List.of());
+
+		assertThat(follower.load()).isTrue();
+		follower.catchUp();
+
+		verify(first).apply(events);
+		verify(second).apply(List.of(events.get(2)));
+		verify(first).caughtUp(eq(13L), anyLong());
+		verify(second).caughtUp(eq(13L), anyLong());
+		verify(disabled, never()).load();
+		verify(eventService, never()).getEventsAfter(anyLong(), anyInt());
+	}
+
+	@Test
+	void publishesEvenWithoutNewEvents() {
+		when(first.isEnabled()).thenReturn(true);
+		when(first.load()).thenReturn(10L);
+		when(eventService.getEventsAfterOnPrimary(anyLong(), anyInt())).thenReturn(List.of());
+
+		follower.load();
+		follower.catchUp();
+
+		verify(first, never()).apply(List.of());
+		verify(first).caughtUp(eq(10L), anyLong());
+	}
+
+	@Test
+	void aFailingConsumerDoesNotHoldBackTheOthers() {
+		when(first.isEnabled()).thenReturn(true);
+		when(first.load()).thenReturn(10L);
+		when(second.isEnabled()).thenReturn(true);
+		when(second.load()).thenReturn(10L);
+		List<BookEvent> events = List.of(event(11), event(12));
+		when(eventService.getEventsAfterOnPrimary(eq(10L), anyInt())).thenReturn(events);
+		doThrow(new IllegalStateException("boom")).doNothing().when(first).apply(events);
+
+		follower.load();
+		follower.catchUp();
+
+		verify(second).apply(events);
+		verify(second).caughtUp(eq(12L), anyLong());
+		verify(first, never()).caughtUp(anyLong(), anyLong());
+
+		// The next round retries only the consumer that failed
+		follower.catchUp();
+
+		verify(first, times(2)).apply(events);
+		verify(second, times(1)).apply(events);
+		verify(first).caughtUp(eq(12L), anyLong());
+	}
+}
@@ -0,0 +1,88 @@
+package com.library.library_backend.service;
+
+import com.library.library_backend.dto.BookEvent;
+import com.library.library_backend.repository.BookRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookIdFilterTest {
+
+	/** Start of the last sync, with a one minute grace period */
+	private static final long SYNC = Instant.parse("2026-01-01T12:00:00Z").toEpochMilli();
+	private static final Duration GRACE = Duration.ofMinutes(1);
+
+	private static final UUID LOADED = v7(SYNC - Duration.ofHours(1).toMillis(), 1);
+	private static final UUID UNKNOWN = v7(SYNC - Duration.ofHours(1).toMillis(), 2);
+	private static final UUID IN_GRACE = v7(SYNC - Duration.ofSeconds(30).toMillis(), 3);
+
+	private final BookRepository repository = mock(BookRepository.class);
+	private final BookEventService eventService = mock(BookEventService.class);
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final BookIdFilter filter =
+			new BookIdFilter(repository, eventService, meterRegistry, true, 1_000, 0.01, GRACE);
+
+	/** Version 7 id created at the given time, distinct per sequence number */
+	private static UUID v7(long epochMillis, int sequence) {
+		return new UUID(epochMillis << 16 | 0x7000L | sequence, 0x8000_0000_0000_0000L | sequence);
+	}
+
+	@BeforeEach
+	void load() {
+		when(eventService.getLatestSequence()).thenReturn(10L);
+		when(repository.streamAllBookIds()).thenReturn(Stream.of(LOADED));
+		filter.load();
+	}
+
+	@Test
+	void decidesNothingUntilCaughtUp() {
+		assertThat(filter.mightExist(UNKNOWN)).isTrue();
+		assertThat(filter.mightExist(UUID.randomUUID())).isTrue();
+	}
+
+	@Test
+	void rejectsUnknownIdsCreatedBeforeTheLastSync() {
+		filter.caughtUp(10, SYNC);
+
+		assertThat(filter.mightExist(LOADED)).isTrue();
+		assertThat(filter.mightExist(UNKNOWN)).isFalse();
+		assertThat(meterRegistry.counter("library.bookid-filter.rejected").count()).isEqualTo(1);
+	}
+
+	@Test
+	void letsIdsInsideTheGracePeriodThrough() {
+		filter.caughtUp(10, SYNC);
+
+		assertThat(filter.mightExist(IN_GRACE)).isTrue();
+		assertThat(filter.mightExist(v7(SYNC + 1, 4))).isTrue();
+
+		// Found missing by the database, but the filter did not decide for it
+		filter.recordMissing(IN_GRACE);
+		assertThat(meterRegistry.counter("library.bookid-filter.false-positives").count()).isZero();
+	}
+
+	@Test
+	void findsIdsAddedAfterTheSync() {
+		filter.caughtUp(10, SYNC);
+		UUID insertedHere = v7(SYNC - Duration.ofHours(2).toMillis(), 5);
+		UUID importedElsewhere = v7(SYNC - Duration.ofHours(2).toMillis(), 6);
+
+		filter.add(insertedHere);
+		filter.apply(List.of(new BookEvent(11, "CREATED", importedElsewhere.toString(), null, Instant.now())));
+
+		assertThat(filter.mightExist(insertedHere)).isTrue();
+		assertThat(filter.mightExist(importedElsewhere)).isTrue();
+	}
+}
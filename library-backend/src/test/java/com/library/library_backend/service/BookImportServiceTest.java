@@ -0,0 +1,202 @@
+package com.library.library_backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.library_backend.dto.BookImportError;
+import com.library.library_backend.dto.BookImportResult;
+import com.library.library_backend.dto.BookResponse;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the import against a JdbcTemplate that records the inserted titles and
+ * a TransactionTemplate that keeps them only when the callback completes.
+ */
+class BookImportServiceTest {
+
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+	private final BookEventService eventService = mock(BookEventService.class);
+	private final BookIdFilter bookIdFilter = mock(BookIdFilter.class);
+
+	private final List<String> pending = new ArrayList<>();
+	private final List<String> committed = new ArrayList<>();
+	private boolean inTransaction;
+
+	@BeforeEach
+	void fakeDatabase() {
+		when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any())).thenAnswer(this::batchUpdate);
+		when(eventService.toJson(any())).thenAnswer(invocation -> invocation.<BookResponse>getArgument(0).getTitle());
+		doAnswer(invocation -> {
+			assertThat(inTransaction).isTrue();
+			return null;
+		}).when(eventService).notifyAfterCommit();
+		doAnswer(invocation -> {
+			Consumer<TransactionStatus> action = invocation.getArgument(0);
+			inTransaction = true;
+			try {
+				action.accept(mock(TransactionStatus.class));
+				committed.addAll(pending);
+			} finally {
+				pending.clear();
+				inTransaction = false;
+			}
+			return null;
+		}).when(transactionTemplate).executeWithoutResult(any());
+	}
+
+	/**
+	 * Binds every row to a recording statement and keeps its title. Books titled
+	 * "Duplicate ..." violate a unique key, events of "No event" fail.
+	 */
+	@SuppressWarnings("unchecked")
+	private int[][] batchUpdate(InvocationOnMock invocation) throws Exception {
+		assertThat(inTransaction).isTrue();
+		boolean events = invocation.<String>getArgument(0).contains("book_events");
+		Collection<Object> rows = invocation.getArgument(1);
+		ParameterizedPreparedStatementSetter<Object> setter = invocation.getArgument(3);
+		for (Object row : rows) {
+			Map<Integer, Object> values = new HashMap<>();
+			PreparedStatement ps = mock(PreparedStatement.class, call -> {
+				if (call.getArguments().length >= 2 && call.getArgument(0) instanceof Integer index) {
+					values.put(index, call.getArgument(1));
+				}
+				return null;
+			});
+			setter.setValues(ps, row);
+			String title = (String) values.get(events ? 3 : 2);
+			if (!events && title.startsWith("Duplicate")) {
+				throw new DuplicateKeyException("duplicate key");
+			}
+			if (events && title.equals("No event")) {
+				throw new DataIntegrityViolationException("event rejected");
+			}
+			pending.add((events ? "event:" : "book:") + title);
+		}
+		return new int[][]{};
+	}
+
+	private BookImportService service(int batchSize) {
+		return new BookImportService(
+				jdbcTemplate,
+				transactionTemplate,
+				new ObjectMapper(),
+				Validation.buildDefaultValidatorFactory().getValidator(),
+				eventService,
+				bookIdFilter,
+				batchSize
+		);
+	}
+
+	private static String book(String title) {
+		return "{\"title\":\"" + title + "\",\"author\":\"Author\"}";
+	}
+
+	private static InputStream body(String... lines) {
+		return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void insertsEachBatchWithItsEventsInOneTransaction() throws IOException {
+		BookImportResult result = service(2).importBooks(body(book("A"), book("B"), book("C")));
+
+		assertThat(committed).containsExactly(
+				"book:A", "book:B", "event:A", "event:B",
+				"book:C", "event:C");
+		assertThat(result.getReceived()).isEqualTo(3);
+		assertThat(result.getImported()).isEqualTo(3);
+		assertThat(result.getFailed()).isZero();
+		verify(transactionTemplate, times(2)).executeWithoutResult(any());
+		verify(bookIdFilter, times(3)).add(any());
+	}
+
+	@Test
+	void retriesAFailedBatchRowByRow() throws IOException {
+		BookImportResult result = service(3).importBooks(body(book("A"), book("Duplicate"), book("C")));
+
+		assertThat(committed).containsExactly("book:A", "event:A", "book:C", "event:C");
+		assertThat(result.getImported()).isEqualTo(2);
+		assertThat(result.getFailed()).isEqualTo(1);
+		assertThat(result.getErrors()).singleElement().satisfies(error -> {
+			assertThat(error.getRow()).isEqualTo(2);
+			assertThat(error.getMessage()).isEqualTo("Rejected by database: duplicate key");
+		});
+		verify(bookIdFilter, times(2)).add(any());
+	}
+
+	@Test
+	void aRejectedEventRollsBackItsBook() throws IOException {
+		BookImportResult result = service(1).importBooks(body(book("No event")));
+
+		assertThat(committed).isEmpty();
+		assertThat(result.getImported()).isZero();
+		assertThat(result.getFailed()).isEqualTo(1);
+		verify(bookIdFilter, never()).add(any());
+	}
+
+	@Test
+	void stopsAtAMalformedRowAndKeepsCommittedBatches() throws IOException {
+		BookImportResult result = service(1).importBooks(
+				body(book("A"), book("B"), "{\"title\": oops", book("C")));
+
+		assertThat(committed).containsExactly("book:A", "event:A", "book:B", "event:B");
+		assertThat(result.getReceived()).isEqualTo(3);
+		assertThat(result.getImported()).isEqualTo(2);
+		assertThat(result.getFailed()).isEqualTo(1);
+		assertThat(result.getReceived()).isEqualTo(result.getImported() + result.getFailed());
+		assertThat(result.getErrors()).singleElement().satisfies(error -> {
+			assertThat(error.getRow()).isEqualTo(3);
+			assertThat(error.getMessage()).startsWith("Malformed input: ");
+		});
+	}
+
+	@Test
+	void reportsOnlyTheFirstRejectedRows() throws IOException {
+		String rows = IntStream.range(0, 150)
+				.mapToObj(i -> book(""))
+				.collect(Collectors.joining(",", "[", "]"));
+
+		BookImportResult result = service(10).importBooks(body(rows));
+
+		assertThat(result.getReceived()).isEqualTo(150);
+		assertThat(result.getFailed()).isEqualTo(150);
+		assertThat(result.getErrors()).hasSize(BookImportService.MAX_REPORTED_ERRORS);
+		assertThat(result.getErrors()).extracting(BookImportError::getRow).startsWith(1L).endsWith(100L);
+		assertThat(result.getErrors().get(0).getMessage()).isEqualTo("title: Title must not be empty");
+		verifyNoInteractions(transactionTemplate);
+	}
+}
@@ -0,0 +1,81 @@
+package com.library.library_backend.service;
+
+import com.library.library_backend.dto.BookBatchResponse;
+import com.library.library_backend.dto.BookResponse;
+import com.library.library_backend.exception.BadRequestException;
+import com.library.library_backend.mapper.BookMapper;
+import com.library.library_backend.repository.BookRepository;
+import com.library.library_backend.repository.BookStatsRepository;
+import com.library.library_backend.repository.CatalogVersionRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class BookServiceBatchTest {
+
+	private static final UUID A = new UUID(0, 1);
+	private static final UUID B = new UUID(0, 2);
+	private static final UUID C = new UUID(0, 3);
+
+	private final BookRepository repository = mock(BookRepository.class);
+	private final BookIdFilter bookIdFilter = mock(BookIdFilter.class);
+
+	private final BookService service = new BookService(
+			repository,
+			mock(CatalogVersionRepository.class),
+			mock(BookStatsRepository.class),
+			mock(BookEventService.class),
+			mock(IdempotencyKeyService.class),
+			bookIdFilter,
+			mock(BookMapper.class),
+			200,
+			4,
+			false
+	);
+
+	private static BookResponse book(UUID bookId) {
+		return new BookResponse(bookId, "Title", "Author", null, null, true);
+	}
+
+	@Test
+	void keepsRequestOrderAndReportsMissingIds() {
+		when(bookIdFilter.mightExist(any())).thenReturn(true);
+		when(repository.findResponsesByBookIdIn(any())).thenReturn(List.of(book(C), book(A)));
+
+		BookBatchResponse response = service.getBooks(
+				List.of(A.toString(), B.toString(), C.toString(), A.toString(), "not-a-uuid"));
+
+		assertThat(response.getContent()).extracting(BookResponse::getBookId)
+				.containsExactly(A.toString(), C.toString());
+		assertThat(response.getMissing()).containsExactly(B.toString(), "not-a-uuid");
+		verify(repository).findResponsesByBookIdIn(Set.of(A, B, C));
+	}
+
+	@Test
+	void skipsIdsRuledOutByTheFilter() {
+		when(bookIdFilter.mightExist(A)).thenReturn(true);
+		when(repository.findResponsesByBookIdIn(any())).thenReturn(List.of(book(A)));
+
+		BookBatchResponse response = service.getBooks(List.of(A.toString(), B.toString()));
+
+		assertThat(response.getMissing()).containsExactly(B.toString());
+		verify(repository).findResponsesByBookIdIn(Set.of(A));
+	}
+
+	@Test
+	void rejectsTooManyIds() {
+		assertThatThrownBy(() -> service.getBooks(List.of("a", "b", "c", "d", "e")))
+				.isInstanceOf(BadRequestException.class);
+		verifyNoInteractions(repository);
+	}
+}
@@ -0,0 +1,130 @@
+package com.library.library_backend.service;
+
+import com.library.library_backend.dto.BookCreateResult;
+import com.library.library_backend.dto.BookRequest;
+import com.library.library_backend.dto.BookResponse;
+import com.library.library_backend.entity.BookEntity;
+import com.library.library_backend.entity.BookEventType;
+import com.library.library_backend.mapper.BookMapper;
+import com.library.library_backend.repository.BookRepository;
+import com.library.library_backend.repository.BookStatsRepository;
+import com.library.library_backend.repository.CatalogVersionRepository;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class BookServiceCreateTest {
+
+	private static final UUID EXISTING = new UUID(0, 1);
+
+	private final BookRepository repository = mock(BookRepository.class);
+	private final BookEventService eventService = mock(BookEventService.class);
+	private final IdempotencyKeyService idempotencyKeys = mock(IdempotencyKeyService.class);
+
+	private BookService service(boolean isbnUpsert) {
+		return new BookService(
+				repository,
+				mock(CatalogVersionRepository.class),
+				mock(BookStatsRepository.class),
+				eventService,
+				idempotencyKeys,
+				mock(BookIdFilter.class),
+				Mappers.getMapper(BookMapper.class),
+				200,
+				100,
+				isbnUpsert
+		);
+	}
+
+	private static BookRequest request() {
+		BookRequest request = new BookRequest();
+		request.setTitle("Title");
+		request.setAuthor("Author");
+		request.setIsbn("9780134685991");
+		return request;
+	}
+
+	@Test
+	void retryWithIdempotencyKeyReturnsFirstBookWithoutInserting() {
+		BookResponse first = new BookResponse(EXISTING, "Title", "Author", "9780134685991", null, true);
+		when(idempotencyKeys.claim(eq("key-1"), any())).thenReturn(Optional.of(
+				new IdempotencyKeyService.PreviousResult(EXISTING, BookCreateResult.Outcome.CREATED)));
+		when(repository.findResponseByBookId(EXISTING)).thenReturn(Optional.of(first));
+
+		BookCreateResult result = service(false).addBook(request(), "key-1");
+
+		assertThat(result.isReplayed()).isTrue();
+		assertThat(result.getOutcome()).isEqualTo(BookCreateResult.Outcome.CREATED);
+		assertThat(result.getBook()).isSameAs(first);
+		verify(repository, never()).save(any());
+		verify(idempotencyKeys, never()).complete(any(), any(), any());
+		verifyNoInteractions(eventService);
+	}
+
+	@Test
+	void retryOfDuplicateIsbnReplaysExistingOutcome() {
+		BookResponse existing = new BookResponse(EXISTING, "Title", "Author", "9780134685991", null, true);
+		when(idempotencyKeys.claim(eq("key-1"), any())).thenReturn(Optional.empty());
+		when(repository.insertIfIsbnAbsent(any(), any())).thenReturn(false);
+		when(repository.findResponseByIsbn("9780134685991")).thenReturn(Optional.of(existing));
+
+		BookCreateResult first = service(true).addBook(request(), "key-1");
+
+		assertThat(first.getOutcome()).isEqualTo(BookCreateResult.Outcome.EXISTING);
+		assertThat(first.isReplayed()).isFalse();
+		verify(idempotencyKeys).complete("key-1", EXISTING, BookCreateResult.Outcome.EXISTING);
+
+		when(idempotencyKeys.claim(eq("key-1"), any())).thenReturn(Optional.of(
+				new IdempotencyKeyService.PreviousResult(EXISTING, BookCreateResult.Outcome.EXISTING)));
+		when(repository.findResponseByBookId(EXISTING)).thenReturn(Optional.of(existing));
+
+		BookCreateResult retry = service(true).addBook(request(), "key-1");
+
+		assertThat(retry.getOutcome()).isEqualTo(BookCreateResult.Outcome.EXISTING);
+		assertThat(retry.isReplayed()).isTrue();
+		assertThat(retry.getBook()).isSameAs(existing);
+		verifyNoInteractions(eventService);
+	}
+
+	@Test
+	void newIdempotencyKeyIsCompletedWithCreatedBook() {
+		when(idempotencyKeys.claim(eq("key-1"), any())).thenReturn(Optional.empty());
+
+		BookCreateResult result = service(false).addBook(request(), "key-1");
+
+		ArgumentCaptor<BookEntity> saved = ArgumentCaptor.forClass(BookEntity.class);
+		verify(repository).save(saved.capture());
+		UUID bookId = saved.getValue().getBookId();
+		assertThat(result.getOutcome()).isEqualTo(BookCreateResult.Outcome.CREATED);
+		assertThat(result.isReplayed()).isFalse();
+		assertThat(result.getBook().getBookId()).isEqualTo(bookId.toString());
+		verify(idempotencyKeys).complete("key-1", bookId, BookCreateResult.Outcome.CREATED);
+		verify(eventService).record(BookEventType.CREATED, bookId, result.getBook());
+	}
+
+	@Test
+	void duplicateIsbnReturnsExistingBookWithoutEvent() {
+		BookResponse existing = new BookResponse(EXISTING, "Title", "Author", "9780134685991", null, true);
+		when(repository.insertIfIsbnAbsent(any(), any())).thenReturn(false);
+		when(repository.findResponseByIsbn("9780134685991")).thenReturn(Optional.of(existing));
+
+		BookCreateResult result = service(true).addBook(request(), null);
+
+		assertThat(result.getOutcome()).isEqualTo(BookCreateResult.Outcome.EXISTING);
+		assertThat(result.getBook()).isSameAs(existing);
+		verify(repository, never()).save(any());
+		verifyNoInteractions(eventService, idempotencyKeys);
+	}
+}
@@ -0,0 +1,40 @@
+package com.library.library_backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.library_backend.exception.NotFoundException;
+import com.library.library_backend.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class BookSuggestServiceTest {
+
+	private static BookSuggestService service(boolean enabled) {
+		return new BookSuggestService(
+				mock(BookService.class),
+				mock(BookEventService.class),
+				new ObjectMapper(),
+				new SimpleMeterRegistry(),
+				enabled,
+				500
+		);
+	}
+
+	@Test
+	void isUnavailableUntilTheIndexIsLoaded() {
+		assertThatThrownBy(() -> service(true).suggest("tolk", 5))
+				.isInstanceOf(ServiceUnavailableException.class);
+	}
+
+	@Test
+	void isNotFoundWhenDisabled() {
+		BookSuggestService service = service(false);
+
+		assertThat(service.isEnabled()).isFalse();
+		assertThatThrownBy(() -> service.suggest("tolk", 5))
+				.isInstanceOf(NotFoundException.class);
+	}
+}
@@ -0,0 +1,138 @@
+package com.library.library_backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.library_backend.dto.BookEvent;
+import com.library.library_backend.dto.BookResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CatalogSnapshotTest {
+
+	private static final UUID A = new UUID(0, 1);
+	private static final UUID B = new UUID(0, 2);
+	private static final UUID C = new UUID(0, 3);
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final BookService bookService = mock(BookService.class);
+	private final BookEventService eventService = mock(BookEventService.class);
+
+	private final CatalogSnapshot snapshot = new CatalogSnapshot(
+			bookService, eventService, objectMapper, new SimpleMeterRegistry(), true);
+
+	private static BookResponse book(UUID bookId, String title) {
+		return new BookResponse(bookId, title, "Author", null, null, true);
+	}
+
+	private String write(long version) throws IOException {
+		Optional<CatalogSnapshot.View> view = snapshot.at(version);
+		assertThat(view).isPresent();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		view.get().writeJsonArray(out);
+		return out.toString(StandardCharsets.UTF_8);
+	}
+
+	@Test
+	void isEmptyUntilBuilt() {
+		assertThat(snapshot.at(0)).isEmpty();
+	}
+
+	@Test
+	void isOnlyServedAtTheVersionItApplied() throws IOException {
+		when(eventService.getLatestSequence()).thenReturn(10L);
+		doAnswer(invocation -> {
+			Consumer<BookResponse> consumer = invocation.getArgument(0);
+			consumer.accept(book(C, "Third"));
+			consumer.accept(book(A, "First"));
+			return 2L;
+		}).when(bookService).streamAllBooks(any());
+
+		assertThat(snapshot.load()).isEqualTo(10L);
+		assertThat(objectMapper.readTree(write(10)))
+				.isEqualTo(objectMapper.valueToTree(List.of(book(A, "First"), book(C, "Third"))));
+
+		snapshot.apply(List.of(
+				new BookEvent(11, "CREATED", B.toString(),
+						objectMapper.writeValueAsString(book(B, "Second")), Instant.now()),
+				new BookEvent(12, "UPDATED", A.toString(),
+						objectMapper.writeValueAsString(book(A, "First, revised")), Instant.now()),
+				new BookEvent(13, "DELETED", C.toString(), null, Instant.now())
+		));
+		assertThat(snapshot.at(13)).isEmpty();
+		assertThat(objectMapper.readTree(write(10)))
+				.isEqualTo(objectMapper.valueToTree(List.of(book(A, "First"), book(C, "Third"))));
+
+		snapshot.caughtUp(13, System.currentTimeMillis());
+		assertThat(snapshot.at(10)).isEmpty();
+		assertThat(objectMapper.readTree(write(13)))
+				.isEqualTo(objectMapper.valueToTree(List.of(book(A, "First, revised"), book(B, "Second"))));
+	}
+
+	@Test
+	void patchesBooksAcrossSegments() throws IOException {
+		Random random = new Random(42);
+		TreeMap<String, BookResponse> expected = new TreeMap<>();
+		for (int i = 0; i < 3 * CatalogSnapshot.SEGMENT_SIZE; i++) {
+			BookResponse book = book(new UUID(random.nextLong(), random.nextLong()), "Loaded " + i);
+			expected.put(book.getBookId(), book);
+		}
+		when(eventService.getLatestSequence()).thenReturn(0L);
+		doAnswer(invocation -> {
+			Consumer<BookResponse> consumer = invocation.getArgument(0);
+			expected.values().forEach(consumer);
+			return (long) expected.size();
+		}).when(bookService).streamAllBooks(any());
+		snapshot.load();
+
+		long sequence = 0;
+		for (int round = 0; round < 20; round++) {
+			List<BookEvent> events = new ArrayList<>();
+			for (int i = 0; i < 50; i++) {
+				sequence++;
+				List<String> bookIds = new ArrayList<>(expected.keySet());
+				// Only deletes in later rounds, so segments shrink and merge
+				int action = round < 10 ? random.nextInt(3) : 2;
+				if (action == 0 || bookIds.isEmpty()) {
+					BookResponse book = book(new UUID(random.nextLong(), random.nextLong()), "Created " + sequence);
+					expected.put(book.getBookId(), book);
+					events.add(new BookEvent(sequence, "CREATED", book.getBookId(),
+							objectMapper.writeValueAsString(book), Instant.now()));
+				} else if (action == 1) {
+					String bookId = bookIds.get(random.nextInt(bookIds.size()));
+					BookResponse book = book(UUID.fromString(bookId), "Updated " + sequence);
+					expected.put(bookId, book);
+					events.add(new BookEvent(sequence, "UPDATED", bookId,
+							objectMapper.writeValueAsString(book), Instant.now()));
+				} else {
+					String bookId = bookIds.get(random.nextInt(bookIds.size()));
+					expected.remove(bookId);
+					events.add(new BookEvent(sequence, "DELETED", bookId, null, Instant.now()));
+				}
+			}
+			snapshot.apply(events);
+			snapshot.caughtUp(sequence, System.currentTimeMillis());
+
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			assertThat(snapshot.at(sequence).orElseThrow().writeJsonArray(out)).isEqualTo(expected.size());
+			assertThat(objectMapper.readTree(out.toByteArray()))
+					.isEqualTo(objectMapper.valueToTree(new ArrayList<>(expected.values())));
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package com.library.library_backend.service;
+
+import com.library.library_backend.dto.BookSuggestion;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggestIndexTest {
+
+	private final SuggestIndex index = new SuggestIndex();
+
+	@Test
+	void normalizesCaseAccentsAndPunctuation() {
+		assertThat(SuggestIndex.normalize("  Đorđe  Balašević ")).isEqualTo("dorde balasevic");
+		assertThat(SuggestIndex.normalize("Ender's Game: Part-1")).isEqualTo("enders game part 1");
+	}
+
+	@Test
+	void completesAnyWordAndRanksStartOfTitleFirst() {
+		index.put(new BookSuggestion("1", "The Lord of the Rings", "J. R. R. Tolkien"));
+		index.put(new BookSuggestion("2", "Lord Jim", "Joseph Conrad"));
+		index.put(new BookSuggestion("3", "Dune", "Frank Herbert"));
+		index.put(new BookSuggestion("4", "Lords and Ladies", "Terry Pratchett"));
+		index.publish();
+
+		assertThat(index.suggest("LORD", 10, 100)).extracting(BookSuggestion::getBookId)
+				.containsExactly("2", "4", "1");
+		assertThat(index.suggest("lord of", 10, 100)).extracting(BookSuggestion::getBookId)
+				.containsExactly("1");
+		assertThat(index.suggest("herb", 10, 100)).extracting(BookSuggestion::getBookId)
+				.containsExactly("3");
+		assertThat(index.suggest("lord", 1, 100)).hasSize(1);
+		assertThat(index.suggest("xyz", 10, 100)).isEmpty();
+	}
+
+	@Test
+	void appliesUpdatesAndRemovalsOnPublish() {
+		index.put(new BookSuggestion("1", "Dune", "Frank Herbert"));
+		index.put(new BookSuggestion("2", "Emma", "Jane Austen"));
+		index.publish();
+
+		index.put(new BookSuggestion("1", "Dune Messiah", "Frank Herbert"));
+		index.remove("2");
+		index.put(new BookSuggestion("3", "Persuasion", "Jane Austen"));
+		assertThat(index.suggest("emma", 10, 100)).hasSize(1);
+
+		index.publish();
+
+		assertThat(index.suggest("messiah", 10, 100)).extracting(BookSuggestion::getTitle)
+				.containsExactly("Dune Messiah");
+		assertThat(index.suggest("emma", 10, 100)).isEmpty();
+		assertThat(index.suggest("austen", 10, 100)).extracting(BookSuggestion::getBookId)
+				.containsExactly("3");
+		assertThat(index.size()).isEqualTo(2);
+	}
+
+	@Test
+	void suggestsEachBookOnceByItsBestMatch() {
+		index.put(new BookSuggestion("1", "Sea of Seas", "Sean Seaborne"));
+		index.put(new BookSuggestion("2", "The Sea", "John Banville"));
+		index.publish();
+
+		assertThat(index.suggest("sea", 10, 100)).extracting(BookSuggestion::getBookId)
+				.containsExactly("1", "2");
+		assertThat(index.suggest("sea", 1, 100)).extracting(BookSuggestion::getBookId)
+				.containsExactly("1");
+	}
+
+	@Test
+	void ranksOnlyTheFirstMaxScanMatchesInAlphabeticalOrder() {
+		// "aardvark" sorts before "azure", but only matches a later word
+		index.put(new BookSuggestion("1", "Zoo Aardvark", "Anon"));
+		index.put(new BookSuggestion("2", "Azure", "Someone"));
+		index.publish();
+
+		assertThat(index.suggest("a", 10, 100)).extracting(BookSuggestion::getBookId)
+				.containsExactly("2", "1");
+		assertThat(index.suggest("a", 10, 1)).extracting(BookSuggestion::getBookId)
+				.containsExactly("1");
+	}
+}
@@ -0,0 +1,44 @@
+package com.library.library_backend.service;
+
+import com.library.library_backend.entity.UuidV7;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidBloomFilterTest {
+
+	@Test
+	void hasNoFalseNegatives() {
+		UuidBloomFilter filter = new UuidBloomFilter(10_000, 0.01);
+		List<UUID> added = new ArrayList<>();
+		for (int i = 0; i < 10_000; i++) {
+			UUID uuid = UuidV7.generate();
+			filter.add(uuid);
+			added.add(uuid);
+		}
+
+		assertThat(added).allMatch(filter::mightContain);
+	}
+
+	@Test
+	void keepsFalsePositiveRateNearTarget() {
+		UuidBloomFilter filter = new UuidBloomFilter(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filter.add(UuidV7.generate());
+		}
+
+		int falsePositives = 0;
+		for (int i = 0; i < 100_000; i++) {
+			if (filter.mightContain(UuidV7.generate())) {
+				falsePositives++;
+			}
+		}
+
+		assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+		assertThat(filter.expectedFalsePositiveRate()).isBetween(0.005, 0.02);
+	}
+}
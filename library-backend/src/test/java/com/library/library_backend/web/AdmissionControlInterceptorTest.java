@@ -0,0 +1,82 @@
+package com.library.library_backend.web;
+
+import com.library.library_backend.exception.ServiceUnavailableException;
+import com.library.library_backend.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdmissionControlInterceptorTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final AdmissionControlInterceptor interceptor =
+			new AdmissionControlInterceptor(meterRegistry, 100, 100, 100, 100, 1, 1000);
+
+	private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+	static class Handlers {
+
+		@ExpensiveEndpoint
+		public void export() {
+		}
+
+		public void getBook() {
+		}
+	}
+
+	private static HandlerMethod handler(String name) throws NoSuchMethodException {
+		return new HandlerMethod(new Handlers(), name);
+	}
+
+	private static MockHttpServletRequest request() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books");
+		request.setAsyncSupported(true);
+		return request;
+	}
+
+	@Test
+	void rateLimitsPerClientAndEndpoint() throws Exception {
+		AdmissionControlInterceptor strict =
+				new AdmissionControlInterceptor(meterRegistry, 1, 1, 1, 1, 10, 1000);
+		HandlerMethod getBook = handler("getBook");
+
+		assertThat(strict.preHandle(request(), response, getBook)).isTrue();
+		assertThatThrownBy(() -> strict.preHandle(request(), response, getBook))
+				.isInstanceOf(TooManyRequestsException.class);
+
+		MockHttpServletRequest otherClient = request();
+		otherClient.setRemoteAddr("10.0.0.2");
+		assertThat(strict.preHandle(otherClient, response, getBook)).isTrue();
+		assertThat(strict.preHandle(request(), response, handler("export"))).isTrue();
+	}
+
+	@Test
+	void holdsConcurrencySlotUntilAsyncRequestCompletes() throws Exception {
+		HandlerMethod export = handler("export");
+
+		MockHttpServletRequest streaming = request();
+		interceptor.preHandle(streaming, response, export);
+		streaming.startAsync();
+		interceptor.afterConcurrentHandlingStarted(streaming, response, export);
+
+		assertThatThrownBy(() -> interceptor.preHandle(request(), response, export))
+				.isInstanceOf(ServiceUnavailableException.class);
+		// Cheap endpoints are never shed
+		assertThat(interceptor.preHandle(request(), response, handler("getBook"))).isTrue();
+
+		// The async re-dispatch neither takes a second slot nor leaks the first
+		streaming.setDispatcherType(DispatcherType.ASYNC);
+		assertThat(interceptor.preHandle(streaming, response, export)).isTrue();
+		streaming.getAsyncContext().complete();
+		interceptor.afterCompletion(streaming, response, export, null);
+
+		assertThat(interceptor.preHandle(request(), response, export)).isTrue();
+	}
+}
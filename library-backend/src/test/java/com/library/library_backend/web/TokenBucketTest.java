@@ -0,0 +1,36 @@
+package com.library.library_backend.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+	private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	@Test
+	void admitsBurstThenRefillsAtRate() {
+		long now = 0;
+		TokenBucket bucket = new TokenBucket(2, 3, now);
+
+		assertThat(bucket.tryAcquire(now)).isZero();
+		assertThat(bucket.tryAcquire(now)).isZero();
+		assertThat(bucket.tryAcquire(now)).isZero();
+		assertThat(bucket.tryAcquire(now)).isEqualTo(SECOND / 2);
+
+		assertThat(bucket.tryAcquire(now + SECOND / 2)).isZero();
+		assertThat(bucket.tryAcquire(now + SECOND / 2)).isPositive();
+	}
+
+	@Test
+	void doesNotAccumulateMoreThanBurst() {
+		TokenBucket bucket = new TokenBucket(1, 2, 0);
+
+		long later = 60 * SECOND;
+		assertThat(bucket.tryAcquire(later)).isZero();
+		assertThat(bucket.tryAcquire(later)).isZero();
+		assertThat(bucket.tryAcquire(later)).isPositive();
+	}
+}